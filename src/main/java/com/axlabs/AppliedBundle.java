@@ -0,0 +1,15 @@
+package com.axlabs;
+
+import io.neow3j.devpack.List;
+
+public class AppliedBundle {
+    public Meme[] created;
+    // The ids of the memes that were removed. Memes that were already gone are not included.
+    public List<String> removed;
+
+    public AppliedBundle(Meme[] created, List<String> removed) {
+        this.created = created;
+        this.removed = removed;
+    }
+
+}
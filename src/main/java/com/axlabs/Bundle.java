@@ -0,0 +1,14 @@
+package com.axlabs;
+
+public class Bundle {
+    public String id;
+    public Meme[] creations;
+    public String[] removals;
+
+    public Bundle(String id, Meme[] creations, String[] removals) {
+        this.id = id;
+        this.creations = creations;
+        this.removals = removals;
+    }
+
+}
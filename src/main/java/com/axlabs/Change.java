@@ -0,0 +1,14 @@
+package com.axlabs;
+
+public class Change {
+    public int seq;
+    public int op;
+    public String memeId;
+
+    public Change(int seq, int op, String memeId) {
+        this.seq = seq;
+        this.op = op;
+        this.memeId = memeId;
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.axlabs;
+
+import io.neow3j.devpack.List;
+
+public class ChangePage {
+    public List<Change> changes;
+    public int cursor;
+    public boolean hasMore;
+    // Set if changes after the requested version were already compacted. The caller then has to
+    // fetch the whole catalog again.
+    public boolean compacted;
+
+    public ChangePage(List<Change> changes, int cursor, boolean hasMore, boolean compacted) {
+        this.changes = changes;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+        this.compacted = compacted;
+    }
+
+}
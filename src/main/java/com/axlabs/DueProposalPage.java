@@ -0,0 +1,17 @@
+package com.axlabs;
+
+import io.neow3j.devpack.ByteString;
+import io.neow3j.devpack.List;
+
+public class DueProposalPage {
+    public List<String> memeIds;
+    public ByteString cursor;
+    public boolean hasMore;
+
+    public DueProposalPage(List<String> memeIds, ByteString cursor, boolean hasMore) {
+        this.memeIds = memeIds;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+}
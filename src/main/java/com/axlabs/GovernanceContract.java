@@ -4,6 +4,7 @@ import static io.neow3j.devpack.Helper.concat;
 import static io.neow3j.devpack.Helper.toByteArray;
 import io.neow3j.devpack.ByteString;
 import io.neow3j.devpack.Contract;
+import io.neow3j.devpack.ECPoint;
 import io.neow3j.devpack.Hash160;
 import io.neow3j.devpack.Iterator;
 import io.neow3j.devpack.List;
@@ -11,14 +12,21 @@ import io.neow3j.devpack.Runtime;
 import io.neow3j.devpack.Storage;
 import io.neow3j.devpack.StorageContext;
 import io.neow3j.devpack.StorageMap;
+import io.neow3j.devpack.Transaction;
 import io.neow3j.devpack.annotations.DisplayName;
 import io.neow3j.devpack.annotations.ManifestExtra;
 import io.neow3j.devpack.annotations.OnDeployment;
+import io.neow3j.devpack.annotations.OnNEP17Payment;
 import io.neow3j.devpack.annotations.Permission;
 import io.neow3j.devpack.annotations.Safe;
 import io.neow3j.devpack.constants.CallFlags;
 import io.neow3j.devpack.constants.FindOptions;
+import io.neow3j.devpack.constants.NamedCurve;
+import io.neow3j.devpack.contracts.ContractManagement;
+import io.neow3j.devpack.contracts.CryptoLib;
+import io.neow3j.devpack.contracts.GasToken;
 import io.neow3j.devpack.contracts.LedgerContract;
+import io.neow3j.devpack.contracts.StdLib;
 import io.neow3j.devpack.events.Event1Arg;
 import io.neow3j.devpack.events.Event2Args;
 import io.neow3j.devpack.events.Event3Args;
@@ -30,29 +38,99 @@ import io.neow3j.devpack.events.Event5Args;
 public class GovernanceContract {
 
     static final byte[] MEME_CONTRACT_KEY = new byte[]{0x01};
+    static final byte[] OWNER_KEY = new byte[]{0x02};
+    // Holds the sequence number that was assigned to the most recently created proposal.
+    static final byte[] PROPOSAL_SEQ_KEY = new byte[]{0x03};
+    static final byte[] MAX_VOTE_BATCH_SIZE_KEY = new byte[]{0x04};
+    static final byte[] FAST_TRACK_RULE_KEY = new byte[]{0x05};
+    static final byte[] FAST_TRACK_THRESHOLD_KEY = new byte[]{0x06};
+    static final byte[] MAX_BUNDLE_SIZE_KEY = new byte[]{0x07};
+    // Holds the number of stored proposals, i.e., open proposals and proposals that were not
+    // executed yet.
+    static final byte[] PROPOSAL_COUNT_KEY = new byte[]{0x08};
+    // Holds the amount of GAS that is locked per proposal. 0 disables deposits.
+    static final byte[] PROPOSAL_DEPOSIT_KEY = new byte[]{0x09};
+    // Holds the maximum number of stored proposals per proposer. 0 disables the cap.
+    static final byte[] MAX_OPEN_PROPOSALS_KEY = new byte[]{0x0a};
+    // Holds the amount of GAS from deposits of rejected proposals.
+    static final byte[] FORFEITED_DEPOSITS_KEY = new byte[]{0x0b};
     static final int REMOVE = 0;
     static final int CREATE = 1;
+    static final int BUNDLE = 2;
+    static final int ARCHIVE = 3;
     static final int VOTING_TIME = 10;
     static final int MIN_VOTES_IN_FAVOR = 3;
     static final int MAX_GET_PROPOSALS = 100;
-    static final byte PROPOSAL_PREFIX = 2; // prefix for proposal map
-    // The "pre-prefix" for the voter map. Is combined with the memeId for a map prefix.
-    static final byte VOTER_MAP_PREPREFIX = 3; 
+    // Used if the owner did not configure a maximum batch size for voteMany.
+    static final int DEFAULT_MAX_VOTE_BATCH_SIZE = 20;
+    static final int MAX_EXECUTE_BATCH_SIZE = 20;
+    // Used if the owner did not configure a maximum number of operations per bundle.
+    static final int DEFAULT_MAX_BUNDLE_SIZE = 16;
+    // The length of a sha256 hash, i.e., of the image hash of a meme.
+    static final int IMAGE_HASH_LENGTH = 32;
 
-    static final StorageContext ctx = Storage.getStorageContext();
-    static final StorageMap contractMap = ctx.createMap((byte) 1);
-    static final StorageMap proposalTypeMap = ctx.createMap(PROPOSAL_PREFIX);
-    static final StorageMap voteCountMap = ctx.createMap((byte) 4);
-    static final StorageMap voteForMap = ctx.createMap((byte) 5);
-    static final StorageMap voteAgainstMap = ctx.createMap((byte) 6);
+    // Rules that let a proposal be executed before its voting timeframe is over.
+    // No fast track. Proposals are open for the whole voting time.
+    static final int FAST_TRACK_NONE = 0;
+    // 1 is not used. It was a rule that closed voting after a fixed number of votes, which let the
+    // first voters decide a proposal without a registered set of voters.
+    // Voting closes as soon as at least threshold votes are in favor and they make up at least
+    // two thirds of all votes.
+    static final int FAST_TRACK_SUPERMAJORITY = 2;
 
-    // Memes data
-    static final StorageMap descriptionMap = ctx.createMap((byte) 7);
-    static final StorageMap urlMap = ctx.createMap((byte) 8);
-    static final StorageMap imgHashMap = ctx.createMap((byte) 9);
+    // Status codes of a single vote.
+    static final int STATUS_OK = 0;
+    static final int STATUS_NO_PROPOSAL = 1;
+    static final int STATUS_VOTE_CLOSED = 2;
+    static final int STATUS_ALREADY_VOTED = 3;
+    // Status codes of a single execution in addition to STATUS_OK and STATUS_NO_PROPOSAL.
+    static final int STATUS_VOTE_IN_PROGRESS = 4;
+    static final int STATUS_EXECUTION_FAILED = 5;
+    // Status codes of a single signed vote in addition to the status codes of a vote.
+    static final int STATUS_INVALID_NONCE = 6;
+    static final int STATUS_INVALID_SIGNATURE = 7;
+    // Status codes of a proposal in addition to STATUS_OK and STATUS_VOTE_IN_PROGRESS.
+    static final int STATUS_MEME_EXISTS = 8;
+    static final int STATUS_NO_MEME = 9;
+    static final int STATUS_AWAITING_EXECUTION = 10;
+    static final int STATUS_REMOVAL_PENDING = 11;
+    static final int STATUS_TOO_MANY_PROPOSALS = 12;
+    static final int STATUS_INSUFFICIENT_DEPOSIT = 13;
+    static final int STATUS_MEME_ARCHIVED = 14;
 
-    // Stores the vote deadline block number for proposals. 
-    static final StorageMap finalizationMap = ctx.createMap((byte) 10);
+    // The standard single signature verification script is PUSHDATA1 0x21 <public key> followed by
+    // a SYSCALL to System.Crypto.CheckSig. Used to derive the script hash of a public key.
+    static final byte[] VERIFICATION_SCRIPT_PREFIX = new byte[]{0x0c, 0x21};
+    static final byte[] VERIFICATION_SCRIPT_SUFFIX =
+            new byte[]{0x41, 0x56, (byte) 0xe7, (byte) 0xb3, 0x27};
+    static final byte PROPOSAL_PREFIX = 11; // prefix for proposal map
+    static final byte PROPOSAL_INDEX_PREFIX = 12; // prefix for proposal sequence number index
+    // The "pre-prefix" for the voter maps. Is combined with the sequence number of a proposal for
+    // a map prefix, so that every proposal starts with an empty voter map.
+    static final byte VOTER_MAP_PREPREFIX = 13;
+    static final int MAX_VOTER_CLEANUP = 100;
+    static final byte DUE_INDEX_PREFIX = 14; // prefix for the finalization block index
+    static final byte DEPOSIT_PREFIX = 15; // prefix for the deposit balances of accounts
+    static final byte OPEN_PROPOSALS_PREFIX = 16; // prefix for the proposal counts of accounts
+    static final byte REMOVAL_INDEX_PREFIX = 17; // prefix for the index of memes being removed
+
+    static final StorageContext ctx = Storage.getStorageContext();
+    static final StorageMap contractMap = ctx.createMap((byte) 1);
+    // Holds one serialized ProposalRecord per meme id, keyed by the hash of the id.
+    static final StorageMap proposalMap = ctx.createMap(PROPOSAL_PREFIX);
+    // Maps the big-endian sequence number of a proposal to its meme id.
+    static final StorageMap proposalIndexMap = ctx.createMap(PROPOSAL_INDEX_PREFIX);
+    // Maps the big-endian finalization block of a proposal concatenated with the hash of its meme
+    // id to the meme id. Iterating it yields the proposals in the order their voting timeframe
+    // ends.
+    static final StorageMap dueIndexMap = ctx.createMap(DUE_INDEX_PREFIX);
+    // Maps an account to the amount of GAS it deposited and that is not locked in a proposal.
+    static final StorageMap depositMap = ctx.createMap(DEPOSIT_PREFIX);
+    // Maps an account to the number of stored proposals it created.
+    static final StorageMap openProposalsMap = ctx.createMap(OPEN_PROPOSALS_PREFIX);
+    // Maps the hash of each meme id that a removal, bundle or archival proposal takes out of the
+    // catalog to the id of that proposal. Prevents two proposals from removing the same meme.
+    static final StorageMap removalIndexMap = ctx.createMap(REMOVAL_INDEX_PREFIX);
 
     @DisplayName("deployEvent")
     private static Event1Arg<Hash160> onDeploy;
@@ -71,7 +149,37 @@ public class GovernanceContract {
             } else {
                 throw new Exception("Could not initialize.");
             }
+            Transaction tx = (Transaction) Runtime.getScriptContainer();
+            contractMap.put(OWNER_KEY, tx.sender.toByteString());
+        }
+    }
+
+    /**
+     * Updates this contract. Only the account that deployed the contract is allowed to do so.
+     */
+    public static void update(ByteString script, String manifest) throws Exception {
+        if (!Runtime.checkWitness(getOwner())) {
+            throw new Exception("No authorization.");
+        }
+        ContractManagement.update(script, manifest);
+    }
+
+    /**
+     * Updates the underlying MemeContract. Only the owner of this contract is allowed to do so.
+     */
+    public static void updateMemeContract(ByteString script, String manifest) throws Exception {
+        if (!Runtime.checkWitness(getOwner())) {
+            throw new Exception("No authorization.");
         }
+        Contract.call(getMemeContract(), "update", CallFlags.All, new Object[] {script, manifest});
+    }
+
+    /**
+     * Gets the account that deployed this contract and is permitted to update it.
+     */
+    @Safe
+    public static Hash160 getOwner() {
+        return new Hash160(contractMap.get(OWNER_KEY));
     }
 
     /**
@@ -90,6 +198,259 @@ public class GovernanceContract {
         return VOTING_TIME;
     }
 
+    /**
+     * Gets the maximum number of votes that can be cast with one call to
+     * {@link GovernanceContract#voteMany(Hash160, String[], boolean[])}.
+     */
+    @Safe
+    public static int getMaxVoteBatchSize() {
+        int maxBatchSize = contractMap.getInteger(MAX_VOTE_BATCH_SIZE_KEY);
+        if (maxBatchSize == 0) {
+            return DEFAULT_MAX_VOTE_BATCH_SIZE;
+        }
+        return maxBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of votes that can be cast with one call to
+     * {@link GovernanceContract#voteMany(Hash160, String[], boolean[])}. Only the owner of this
+     * contract is allowed to do so.
+     */
+    public static void setMaxVoteBatchSize(int maxBatchSize) throws Exception {
+        if (!Runtime.checkWitness(getOwner())) {
+            throw new Exception("No authorization.");
+        }
+        if (maxBatchSize <= 0) {
+            throw new Exception("The maximum batch size must be positive.");
+        }
+        contractMap.put(MAX_VOTE_BATCH_SIZE_KEY, maxBatchSize);
+    }
+
+    /**
+     * Gets the maximum number of meme creations and removals in one bundle proposal.
+     */
+    @Safe
+    public static int getMaxBundleSize() {
+        int maxBundleSize = contractMap.getInteger(MAX_BUNDLE_SIZE_KEY);
+        if (maxBundleSize == 0) {
+            return DEFAULT_MAX_BUNDLE_SIZE;
+        }
+        return maxBundleSize;
+    }
+
+    /**
+     * Sets the maximum number of meme creations and removals in one bundle proposal. Only the
+     * owner of this contract is allowed to do so.
+     */
+    public static void setMaxBundleSize(int maxBundleSize) throws Exception {
+        if (!Runtime.checkWitness(getOwner())) {
+            throw new Exception("No authorization.");
+        }
+        if (maxBundleSize <= 0) {
+            throw new Exception("The maximum bundle size must be positive.");
+        }
+        contractMap.put(MAX_BUNDLE_SIZE_KEY, maxBundleSize);
+    }
+
+    /**
+     * Gets the amount of GAS that is locked from the proposer's deposit for each proposal. It is
+     * credited back if the proposal is accepted and executed, and forfeited if it is rejected.
+     */
+    @Safe
+    public static int getProposalDeposit() {
+        return contractMap.getInteger(PROPOSAL_DEPOSIT_KEY);
+    }
+
+    /**
+     * Sets the amount of GAS that is locked for each proposal. 0 disables deposits. Only the
+     * owner of this contract is allowed to do so.
+     */
+    public static void setProposalDeposit(int deposit) throws Exception {
+        if (!Runtime.checkWitness(getOwner())) {
+            throw new Exception("No authorization.");
+        }
+        if (deposit < 0) {
+            throw new Exception("The deposit must not be negative.");
+        }
+        contractMap.put(PROPOSAL_DEPOSIT_KEY, deposit);
+    }
+
+    /**
+     * Gets the maximum number of stored proposals per proposer. 0 means that there is no cap.
+     */
+    @Safe
+    public static int getMaxOpenProposals() {
+        return contractMap.getInteger(MAX_OPEN_PROPOSALS_KEY);
+    }
+
+    /**
+     * Sets the maximum number of stored proposals per proposer. 0 disables the cap. Only the
+     * owner of this contract is allowed to do so.
+     */
+    public static void setMaxOpenProposals(int maxOpenProposals) throws Exception {
+        if (!Runtime.checkWitness(getOwner())) {
+            throw new Exception("No authorization.");
+        }
+        if (maxOpenProposals < 0) {
+            throw new Exception("The maximum number of open proposals must not be negative.");
+        }
+        contractMap.put(MAX_OPEN_PROPOSALS_KEY, maxOpenProposals);
+    }
+
+    /**
+     * Gets the number of stored proposals that the account created, i.e., its open proposals and
+     * its closed proposals that were not executed yet.
+     */
+    @Safe
+    public static int getOpenProposals(Hash160 account) {
+        return openProposalsMap.getInteger(account.toByteString());
+    }
+
+    /**
+     * Gets the amount of GAS that the account deposited and that is not locked in a proposal.
+     */
+    @Safe
+    public static int getDeposit(Hash160 account) {
+        return depositMap.getInteger(account.toByteString());
+    }
+
+    /**
+     * Credits GAS transferred to this contract to the deposit of the sender. The deposit of each
+     * proposal is locked from it.
+     */
+    @OnNEP17Payment
+    public static void onNep17Payment(Hash160 from, int amount, Object data) throws Exception {
+        if (Runtime.getCallingScriptHash() != GasToken.getHash()) {
+            throw new Exception("Only GAS can be deposited.");
+        }
+        if (from == null) {
+            throw new Exception("Deposits need a sender.");
+        }
+        ByteString key = from.toByteString();
+        depositMap.put(key, depositMap.getInteger(key) + amount);
+    }
+
+    /**
+     * Transfers GAS from the deposit of the account back to the account.
+     *
+     * @throws Exception if the witness of the account is missing or the deposit is too low.
+     */
+    public static void withdrawDeposit(Hash160 account, int amount) throws Exception {
+        if (!Runtime.checkWitness(account)) {
+            throw new Exception("No valid signature for the provided account.");
+        }
+        ByteString key = account.toByteString();
+        int balance = depositMap.getInteger(key);
+        if (amount <= 0 || amount > balance) {
+            throw new Exception("Invalid amount.");
+        }
+        if (amount == balance) {
+            depositMap.delete(key);
+        } else {
+            depositMap.put(key, balance - amount);
+        }
+        if (!GasToken.transfer(Runtime.getExecutingScriptHash(), account, amount, null)) {
+            throw new Exception("Could not transfer the deposit.");
+        }
+    }
+
+    /**
+     * Gets the amount of GAS from deposits of rejected proposals.
+     */
+    @Safe
+    public static int getForfeitedDeposits() {
+        return contractMap.getInteger(FORFEITED_DEPOSITS_KEY);
+    }
+
+    /**
+     * Transfers GAS from forfeited deposits. Only the owner of this contract is allowed to do so.
+     */
+    public static void withdrawForfeitedDeposits(Hash160 to, int amount) throws Exception {
+        if (!Runtime.checkWitness(getOwner())) {
+            throw new Exception("No authorization.");
+        }
+        int forfeited = contractMap.getInteger(FORFEITED_DEPOSITS_KEY);
+        if (amount <= 0 || amount > forfeited) {
+            throw new Exception("Invalid amount.");
+        }
+        contractMap.put(FORFEITED_DEPOSITS_KEY, forfeited - amount);
+        if (!GasToken.transfer(Runtime.getExecutingScriptHash(), to, amount, null)) {
+            throw new Exception("Could not transfer the forfeited deposits.");
+        }
+    }
+
+    /**
+     * Adds a url prefix to the dictionary of the MemeContract. Memes whose url starts with the
+     * prefix only store the rest of the url. Only the owner of this contract is allowed to do so.
+     *
+     * @return the id of the prefix.
+     */
+    public static int addUrlPrefix(String prefix) throws Exception {
+        if (!Runtime.checkWitness(getOwner())) {
+            throw new Exception("No authorization.");
+        }
+        int id = (int) Contract.call(getMemeContract(), "addUrlPrefix", CallFlags.All,
+                new Object[] {prefix});
+        if (id == 0) {
+            throw new Exception("The prefix is empty or the dictionary is full.");
+        }
+        return id;
+    }
+
+    /**
+     * Sets the number of entries that the change log of the MemeContract keeps. 0 keeps all
+     * entries. Only the owner of this contract is allowed to do so.
+     */
+    public static void setChangeRetention(int retention) throws Exception {
+        if (!Runtime.checkWitness(getOwner())) {
+            throw new Exception("No authorization.");
+        }
+        boolean set = (boolean) Contract.call(getMemeContract(), "setChangeRetention",
+                CallFlags.All, new Object[] {retention});
+        if (!set) {
+            throw new Exception("The retention must not be negative.");
+        }
+    }
+
+    /**
+     * Gets the rule that decides whether a proposal can be executed before its voting timeframe
+     * is over.
+     */
+    @Safe
+    public static int getFastTrackRule() {
+        return contractMap.getInteger(FAST_TRACK_RULE_KEY);
+    }
+
+    /**
+     * Gets the threshold used by the fast track rule.
+     */
+    @Safe
+    public static int getFastTrackThreshold() {
+        return contractMap.getInteger(FAST_TRACK_THRESHOLD_KEY);
+    }
+
+    /**
+     * Sets the rule that decides whether a proposal can be executed before its voting timeframe
+     * is over. Only the owner of this contract is allowed to do so.
+     *
+     * @param rule the fast track rule, e.g., {@link GovernanceContract#FAST_TRACK_SUPERMAJORITY}.
+     * @param threshold the minimum number of votes in favor for the supermajority rule.
+     */
+    public static void setFastTrack(int rule, int threshold) throws Exception {
+        if (!Runtime.checkWitness(getOwner())) {
+            throw new Exception("No authorization.");
+        }
+        if (rule == FAST_TRACK_SUPERMAJORITY) {
+            if (threshold < MIN_VOTES_IN_FAVOR) {
+                throw new Exception("The threshold must not be below the minimum votes in favor.");
+            }
+        } else if (rule != FAST_TRACK_NONE) {
+            throw new Exception("Unknown fast track rule.");
+        }
+        contractMap.put(FAST_TRACK_RULE_KEY, rule);
+        contractMap.put(FAST_TRACK_THRESHOLD_KEY, threshold);
+    }
+
     /**
      * Gets the minimum number of votes in favor for a proposal to be accepted.
      */
@@ -107,26 +468,24 @@ public class GovernanceContract {
      * @param description the description of the meme.
      * @param url the url of the meme.
      * @param imageHash the sha256 hash of the image.
-     * @throws Exception if this meme id already exists.
+     * @throws Exception if this meme id already exists, the image hash is not 32 bytes long or
+     *         another meme or proposal uses the same image.
      */
     public static void proposeNewMeme(String memeId, String description, String url,
             ByteString imageHash) throws Exception {
+        checkImageHash(imageHash);
         if (memeExists(memeId)) {
             throw new Exception("There already exists a meme with this id. Propose and execute "
                     + "its removal before you can create a proposal for a new meme with this id.");
         }
-        handleExistingProposal(memeId);
-
-        proposalTypeMap.put(memeId, CREATE);
-        descriptionMap.put(memeId, description);
-        urlMap.put(memeId, url);
-        imgHashMap.put(memeId, imageHash);
         // The current index is the index of the block that was created last.
-        int finalization = LedgerContract.currentIndex() + getVotingTime();
-        finalizationMap.put(memeId, finalization);
-        voteCountMap.put(memeId, 0);
-        voteForMap.put(memeId, 0);
-        voteAgainstMap.put(memeId, 0);
+        int currentIndex = LedgerContract.currentIndex();
+        ProposalRecord existing = getProposalRecord(memeId);
+        handleExistingProposal(existing, currentIndex);
+
+        int finalization = currentIndex + getVotingTime();
+        replaceProposalRecord(memeId, existing, new ProposalRecord(memeId, CREATE, finalization));
+        stageMeme(memeId, description, url, imageHash);
         onCreationProposal.fire(memeId, description, url, imageHash, finalization);
     }
 
@@ -139,218 +498,1368 @@ public class GovernanceContract {
      * @param memeId the id of the existing meme that should be removed.
      */
     public static void proposeRemoval(String memeId) throws Exception {
-        if (!memeExists(memeId)) {
+        Meme meme = findMeme(memeId);
+        if (meme == null) {
             throw new Exception("No meme with the provided id exists.");
         }
-        handleExistingProposal(memeId);
-
         int currentIndex = LedgerContract.currentIndex();
-        proposalTypeMap.put(memeId, REMOVE);
+        ProposalRecord existing = getProposalRecord(memeId);
+        handleExistingProposal(existing, currentIndex);
+        checkPendingRemovals(memeId, new String[] {memeId}, currentIndex);
+
         int finalization = currentIndex + getVotingTime();
-        finalizationMap.put(memeId, finalization);
-        voteCountMap.put(memeId, 0);
-        voteForMap.put(memeId, 0);
-        voteAgainstMap.put(memeId, 0);
+        ProposalRecord proposal = new ProposalRecord(memeId, REMOVE, finalization);
+        // Memes cannot be changed, so the snapshot stays valid as long as the proposal exists.
+        proposal.meme = meme;
+        replaceProposalRecord(memeId, existing, proposal);
         onRemovalProposal.fire(memeId, finalization);
     }
 
-    private static boolean memeExists(String memeId) {
-        try {
-            Contract.call(getMemeContract(), "getMeme", CallFlags.ReadOnly, new Object[] {memeId});
-        } catch (Exception e) {
-            return false;
-        }
-        return true;
-    }
+    @DisplayName("BundleProposal")
+    private static Event4Args<String, Integer, Integer, Integer> onBundleProposal;
 
-    private static void handleExistingProposal(String memeId) throws Exception {
-        if (proposalTypeMap.get(memeId) != null) {
-            if (isVoteInProgress(memeId)) {
-                throw new Exception("A proposal is still ongoing for this meme id.");
+    /**
+     * Proposes to create and remove multiple memes at once. The bundle is voted on like a single
+     * proposal and, if accepted, all of its changes are executed together.
+     * <p>
+     * Bundle ids share the id space with meme ids, i.e., a bundle cannot be proposed while there
+     * is an open proposal with the same id and vice versa.
+     *
+     * @param bundleId the id of the bundle.
+     * @param creations the memes to create.
+     * @param removals the ids of the existing memes to remove. Another open or accepted proposal
+     *        must not remove or archive any of them.
+     * @throws Exception if the bundle is empty, too large or contains invalid changes.
+     */
+    public static void proposeBundle(String bundleId, Meme[] creations, String[] removals)
+            throws Exception {
+        int size = creations.length + removals.length;
+        if (size == 0) {
+            throw new Exception("A bundle needs at least one meme creation or removal.");
+        }
+        if (size > getMaxBundleSize()) {
+            throw new Exception("Too many changes in one bundle.");
+        }
+        String[] memeIds = new String[size];
+        for (int i = 0; i < size; i++) {
+            if (i < creations.length) {
+                memeIds[i] = creations[i].id;
+            } else {
+                memeIds[i] = removals[i - creations.length];
             }
-            if (isAccepted(memeId)) {
-                throw new Exception("This proposal was accepted and needs to be executed "
-                        + "before creating a new proposal for this meme id.");
+        }
+        checkMemeIds(memeIds);
+        for (int i = 0; i < creations.length; i++) {
+            checkImageHash(creations[i].imageHash);
+        }
+        // Check all meme ids of the bundle with a single call.
+        boolean[] exist = (boolean[]) Contract.call(getMemeContract(), "hasMemes",
+                CallFlags.ReadOnly, new Object[] {memeIds});
+        for (int i = 0; i < size; i++) {
+            if (i < creations.length && exist[i]) {
+                throw new Exception("There already exists a meme with an id of the bundle.");
+            }
+            if (i >= creations.length && !exist[i]) {
+                throw new Exception("No meme exists for an id that the bundle removes.");
             }
         }
-    }
 
-    private static boolean isAccepted(String memeId) {
-        int votesFor = voteForMap.getInteger(memeId);
-        int votesAgainst = voteAgainstMap.getInteger(memeId);
-        return votesFor > votesAgainst && votesFor >= MIN_VOTES_IN_FAVOR;
+        int currentIndex = LedgerContract.currentIndex();
+        ProposalRecord existing = getProposalRecord(bundleId);
+        handleExistingProposal(existing, currentIndex);
+        checkPendingRemovals(bundleId, removals, currentIndex);
+
+        int finalization = currentIndex + getVotingTime();
+        ProposalRecord proposal = new ProposalRecord(bundleId, BUNDLE, finalization);
+        String[] creationIds = new String[creations.length];
+        for (int i = 0; i < creations.length; i++) {
+            creationIds[i] = creations[i].id;
+        }
+        proposal.creations = creationIds;
+        proposal.removals = removals;
+        replaceProposalRecord(bundleId, existing, proposal);
+        boolean staged = (boolean) Contract.call(getMemeContract(), "stageMemes", CallFlags.All,
+                new Object[] {creations});
+        if (!staged) {
+            throw new Exception("The memes of the bundle could not be staged.");
+        }
+        onBundleProposal.fire(bundleId, creations.length, removals.length, finalization);
     }
 
-    @DisplayName("Vote")
-    private static Event3Args<String, ByteString, Boolean> onVote;
+    @DisplayName("ArchivalProposal")
+    private static Event3Args<String, Integer, Integer> onArchivalProposal;
 
     /**
-     * Votes for or against the proposal of a meme.
+     * Proposes to move memes from the MemeContract storage into its Merkle-committed archive.
+     * Archived memes are not returned by the MemeContract anymore, but can be proven against the
+     * archive root. Their ids and images stay reserved.
+     * <p>
+     * Archival ids share the id space with meme ids and bundle ids.
      *
-     * @param memeId the id of the meme.
-     * @param voter the voter.
-     * @param inFavor whether voting in favor of the proposal or against.
+     * @param archivalId the id of the archival proposal.
+     * @param memeIds the ids of the existing memes to archive, in the order they are appended to
+     *        the archive. Another open or accepted proposal must not remove or archive any of
+     *        them.
+     * @throws Exception if no or too many memes are given, or a meme does not exist.
      */
-    public static void vote(String memeId, Hash160 voter, boolean inFavor) throws Exception {
-        if (!Runtime.checkWitness(voter)) {
-            throw new Exception("No valid signature for the provided voter.");
+    public static void proposeArchival(String archivalId, String[] memeIds) throws Exception {
+        if (memeIds.length == 0) {
+            throw new Exception("An archival needs at least one meme.");
         }
-        if (proposalTypeMap.get(memeId) == null) {
-            throw new Exception("No proposal found.");
+        if (memeIds.length > getMaxBundleSize()) {
+            throw new Exception("Too many memes in one archival.");
         }
-        if (!isVoteInProgress(memeId)) {
-            throw new Exception("The vote for this meme is no longer open.");
+        checkMemeIds(memeIds);
+        boolean[] exist = (boolean[]) Contract.call(getMemeContract(), "hasMemes",
+                CallFlags.ReadOnly, new Object[] {memeIds});
+        for (int i = 0; i < memeIds.length; i++) {
+            if (!exist[i]) {
+                throw new Exception("No meme exists for an id that the archival archives.");
+            }
         }
 
-        StorageMap voterMap = ctx.createMap(createVoterMapPrefix(memeId));
-        ByteString voterByteString = voter.toByteString();
-        if (voterMap.get(voterByteString) != null) {
-            throw new Exception("Already voted.");
-        }
-        voterMap.put(voterByteString, 1);
+        int currentIndex = LedgerContract.currentIndex();
+        ProposalRecord existing = getProposalRecord(archivalId);
+        handleExistingProposal(existing, currentIndex);
+        checkPendingRemovals(archivalId, memeIds, currentIndex);
 
-        int currentVotes = voteCountMap.getInteger(memeId);
-        voteCountMap.put(memeId, currentVotes + 1);
-        if (inFavor) {
-            int votesFor = voteForMap.getInteger(memeId);
-            voteForMap.put(memeId, votesFor + 1);
-        } else {
-            int votesAgainst = voteAgainstMap.getInteger(memeId);
-            voteAgainstMap.put(memeId, votesAgainst + 1);
+        int finalization = currentIndex + getVotingTime();
+        ProposalRecord proposal = new ProposalRecord(archivalId, ARCHIVE, finalization);
+        proposal.removals = memeIds;
+        replaceProposalRecord(archivalId, existing, proposal);
+        onArchivalProposal.fire(archivalId, memeIds.length, finalization);
+    }
+
+    private static void checkImageHash(ByteString imageHash) throws Exception {
+        if (imageHash == null || imageHash.length() != IMAGE_HASH_LENGTH) {
+            throw new Exception("The image hash must be a sha256 hash of 32 bytes.");
         }
-        onVote.fire(memeId, voterByteString, inFavor);
     }
 
-    private static byte[] createVoterMapPrefix(String memeId) {
-        return concat(toByteArray(VOTER_MAP_PREPREFIX), memeId);
+    /**
+     * Checks that none of the meme ids of a bundle or an archival is missing or repeated.
+     */
+    private static void checkMemeIds(String[] memeIds) throws Exception {
+        for (int i = 0; i < memeIds.length; i++) {
+            if (memeIds[i] == null) {
+                throw new Exception("The proposal contains a meme without id.");
+            }
+            for (int j = 0; j < i; j++) {
+                if (memeIds[j].equals(memeIds[i])) {
+                    throw new Exception("Each meme id may only appear once in a proposal.");
+                }
+            }
+        }
     }
 
-    @DisplayName("MemeCreation")
-    private static Event4Args<String, String, String, ByteString> onCreation;
+    /**
+     * Stages the payload of a creation proposal in the MemeContract, so that the proposal record
+     * only holds the vote state.
+     */
+    private static void stageMeme(String memeId, String description, String url,
+            ByteString imageHash) throws Exception {
+        boolean staged = (boolean) Contract.call(getMemeContract(), "stageMeme", CallFlags.All,
+                new Object[] {memeId, description, url, imageHash});
+        if (!staged) {
+            throw new Exception("The meme could not be staged. Either its data is incomplete, "
+                    + "its image is already used by another meme or another proposal creates a "
+                    + "meme with this id.");
+        }
+    }
 
-    @DisplayName("MemeRemoval")
-    private static Event1Arg<String> onRemoval;
+    private static Meme findMeme(String memeId) {
+        return ((Meme[]) Contract.call(getMemeContract(), "getMemesByIds", CallFlags.ReadOnly,
+                new Object[] {new String[] {memeId}}))[0];
+    }
 
-    @DisplayName("UnacceptedProposalRemoval")
-    private static Event1Arg<String> onRemovingUnacceptedProposal;
+    private static boolean memeExists(String memeId) {
+        return (boolean) Contract.call(getMemeContract(), "hasMeme", CallFlags.ReadOnly,
+                new Object[] {memeId});
+    }
 
     /**
-     * Executes a proposal.
+     * Checks that no other open or accepted proposal removes or archives one of the given memes.
+     * Otherwise, the proposal that is executed last would find some of its memes gone.
      */
-    public static boolean execute(String memeId) throws Exception {
-        ByteString proposalType = proposalTypeMap.get(memeId);
-        if (proposalType == null) {
-            throw new Exception("No proposal found for this id.");
-        }
-        if (isVoteInProgress(memeId)) {
-            throw new Exception("The voting timeframe for this id is still open.");
-        }
-        int votesFor = voteForMap.getInteger(memeId);
-        int votesAgainst = voteAgainstMap.getInteger(memeId);
-        if (votesFor > votesAgainst && votesFor >= MIN_VOTES_IN_FAVOR) {
-            if (proposalType.toInt() == CREATE) {
-                String description = descriptionMap.get(memeId).toString();
-                String url = urlMap.get(memeId).toString();
-                ByteString imageHash = imgHashMap.get(memeId);
-                boolean createMeme = (boolean) Contract.call(getMemeContract(), "createMeme", CallFlags.All, 
-                        new Object[] {memeId, description, url, imageHash});
-                if (createMeme) {
-                    onCreation.fire(memeId, description, url, imageHash);
-                    clearProposal(memeId);
-                    return true;
-                }
-            } else {
-                boolean removeMeme = (boolean) Contract.call(getMemeContract(), "removeMeme",
-                        CallFlags.All, new Object[] {memeId});
-                if (removeMeme) {
-                    onRemoval.fire(memeId);
-                    clearProposal(memeId);
-                    return true;
-                }
+    private static void checkPendingRemovals(String proposalId, String[] memeIds,
+            int currentIndex) throws Exception {
+        for (int i = 0; i < memeIds.length; i++) {
+            if (isRemovalPending(proposalId, memeIds[i], currentIndex)) {
+                throw new Exception("Another proposal already removes or archives one of the "
+                        + "memes.");
             }
+        }
+    }
+
+    private static boolean isRemovalPending(String proposalId, String memeId, int currentIndex) {
+        ByteString otherId = removalIndexMap.get(toIdKey(memeId));
+        // An entry of the proposal that is replaced was already checked by
+        // handleExistingProposal.
+        if (otherId == null || otherId.toString().equals(proposalId)) {
             return false;
         }
-        onRemovingUnacceptedProposal.fire(memeId);
-        clearProposal(memeId);
-        return true;
+        ProposalRecord other = getProposalRecord(otherId.toString());
+        return other != null && checkExistingProposal(other, currentIndex) != STATUS_OK;
     }
 
-    private static boolean isVoteInProgress(String memeId) {
-        int currentIndex = LedgerContract.currentIndex();
-        int finalizationBlock = finalizationMap.getInteger(memeId);
-        return currentIndex < finalizationBlock;
-    }
-
-    private static void clearProposal(String memeId) {
-        proposalTypeMap.delete(memeId);
-        finalizationMap.delete(memeId);
-        voteCountMap.delete(memeId);
-        voteForMap.delete(memeId);
-        voteAgainstMap.delete(memeId);
-        descriptionMap.delete(memeId);
-        urlMap.delete(memeId);
-        imgHashMap.delete(memeId);
-
-        // Clear voter map 
-        byte[] voterMapPrefix = createVoterMapPrefix(memeId);
-        StorageMap voterMap = ctx.createMap(voterMapPrefix);
-        Iterator<Iterator.Struct<ByteString, ByteString>> iterator =
-                Storage.find(ctx, voterMapPrefix, FindOptions.RemovePrefix);
-        while (iterator.next()) {
-            voterMap.delete(iterator.get().key);
+    /**
+     * Gets the ids of the memes that a proposal takes out of the catalog.
+     */
+    private static String[] getRemovals(String proposalId, ProposalRecord proposal) {
+        if (proposal.type == REMOVE) {
+            return new String[] {proposalId};
+        }
+        if (proposal.type == BUNDLE || proposal.type == ARCHIVE) {
+            return proposal.removals;
+        }
+        return new String[0];
+    }
+
+    private static void reserveRemovals(String proposalId, ProposalRecord proposal) {
+        String[] removals = getRemovals(proposalId, proposal);
+        for (int i = 0; i < removals.length; i++) {
+            removalIndexMap.put(toIdKey(removals[i]), proposalId);
         }
     }
 
     /**
-     * Gets the proposal for the specified meme id.
+     * Deletes the removal index entries of a proposal. Entries that were taken over by a later
+     * proposal are kept.
      */
-    @Safe
-    public static Proposal getProposal(String memeId) {
-        boolean create = proposalTypeMap.getInteger(memeId) == CREATE;
-        boolean voteInProgress = isVoteInProgress(memeId);
-        int finalizationBlock = finalizationMap.getInteger(memeId);
-        int votesInFavor = voteForMap.getInteger(memeId);
-        int votesAgainst = voteAgainstMap.getInteger(memeId);
-
-        if (create) {
-            String description = descriptionMap.get(memeId).toString();
-            String url = urlMap.get(memeId).toString();
-            ByteString imageHash = imgHashMap.get(memeId);
-            Meme meme = new Meme(memeId, description, url, imageHash);
-            return new Proposal(meme, true, voteInProgress, finalizationBlock, votesInFavor,
-                    votesAgainst);
-        } else {
-            Meme meme = (Meme) Contract.call(getMemeContract(), "getMeme", CallFlags.ReadOnly,
-                    new Object[] {memeId});
-            return new Proposal(meme, false, voteInProgress, finalizationBlock, votesInFavor,
-                    votesAgainst);
+    private static void releaseRemovals(String proposalId, ProposalRecord proposal) {
+        String[] removals = getRemovals(proposalId, proposal);
+        for (int i = 0; i < removals.length; i++) {
+            ByteString key = toIdKey(removals[i]);
+            ByteString reservedBy = removalIndexMap.get(key);
+            if (reservedBy != null && reservedBy.toString().equals(proposalId)) {
+                removalIndexMap.delete(key);
+            }
+        }
+    }
+
+    private static void handleExistingProposal(ProposalRecord proposal, int currentIndex)
+            throws Exception {
+        int status = checkExistingProposal(proposal, currentIndex);
+        if (status == STATUS_VOTE_IN_PROGRESS) {
+            throw new Exception("A proposal is still ongoing for this meme id.");
+        }
+        if (status == STATUS_AWAITING_EXECUTION) {
+            throw new Exception("This proposal was accepted and needs to be executed "
+                    + "before creating a new proposal for this meme id.");
         }
     }
 
     /**
-     * Gets a list of proposals.
+     * Checks whether an existing proposal may be overwritten by a new proposal.
      */
-    @Safe
-    public static List<Proposal> getProposals(int startingIndex) {
-        int finalIndex = startingIndex + MAX_GET_PROPOSALS;
-        List<Proposal> proposals = new List<>();
-        Iterator<Iterator.Struct<ByteString, ByteString>> iterator =
-                Storage.find(ctx, toByteArray(PROPOSAL_PREFIX), FindOptions.RemovePrefix);
-        int i = 0;
-        while (iterator.next()) {
-            if (i < startingIndex) {
-                continue;
+    private static int checkExistingProposal(ProposalRecord proposal, int currentIndex) {
+        if (proposal != null) {
+            if (isVoteInProgress(proposal, currentIndex)) {
+                return STATUS_VOTE_IN_PROGRESS;
             }
-            if (i == finalIndex) {
-                break;
+            if (isAccepted(proposal)) {
+                return STATUS_AWAITING_EXECUTION;
             }
-            Iterator.Struct<ByteString, ByteString> pair = iterator.get();
-            String memeId = pair.key.toString();
-            Proposal proposal = getProposal(memeId);
-            proposals.add(proposal);
-            i++;
         }
-        return proposals;
+        return STATUS_OK;
+    }
+
+    private static boolean isAccepted(ProposalRecord proposal) {
+        return proposal.votesInFavor > proposal.votesAgainst
+                && proposal.votesInFavor >= MIN_VOTES_IN_FAVOR;
+    }
+
+    private static ProposalRecord getProposalRecord(String memeId) {
+        ByteString proposal = proposalMap.get(toIdKey(memeId));
+        if (proposal == null) {
+            return null;
+        }
+        return (ProposalRecord) StdLib.deserialize(proposal);
+    }
+
+    private static void saveProposalRecord(String memeId, ProposalRecord proposal) {
+        proposalMap.put(toIdKey(memeId), StdLib.serialize(proposal));
+    }
+
+    /**
+     * Stores a new proposal under the next sequence number. If an unaccepted proposal for the same
+     * meme id is overwritten, its sequence number is released and its staged memes are dropped.
+     */
+    private static void replaceProposalRecord(String memeId, ProposalRecord existing,
+            ProposalRecord proposal) throws Exception {
+        if (existing != null) {
+            dropStagedMemes(memeId, existing);
+            releaseRemovals(memeId, existing);
+            proposalIndexMap.delete(toIndexKey(existing.seq));
+            dueIndexMap.delete(createDueIndexKey(existing.finalizationBlock, memeId));
+            contractMap.put(PROPOSAL_COUNT_KEY, contractMap.getInteger(PROPOSAL_COUNT_KEY) - 1);
+            settleDeposit(existing, false);
+        }
+        chargeProposer(proposal);
+        addProposalRecord(memeId, proposal);
+        reserveRemovals(memeId, proposal);
+    }
+
+    /**
+     * Charges the sender of the transaction for a new proposal. Checks the cap on stored proposals
+     * per account and locks the proposal deposit from the sender's deposit balance.
+     * <p>
+     * The witness of the sender is required, so that a contract that the sender invokes cannot
+     * lock the sender's deposit in proposals or use up the sender's proposals.
+     */
+    private static void chargeProposer(ProposalRecord proposal) throws Exception {
+        Hash160 proposer = ((Transaction) Runtime.getScriptContainer()).sender;
+        if (!Runtime.checkWitness(proposer)) {
+            throw new Exception("No valid signature for the proposer.");
+        }
+        ByteString key = proposer.toByteString();
+        int open = openProposalsMap.getInteger(key);
+        int status = checkProposer(key, open);
+        if (status == STATUS_TOO_MANY_PROPOSALS) {
+            throw new Exception("Too many open proposals for this account.");
+        }
+        if (status == STATUS_INSUFFICIENT_DEPOSIT) {
+            throw new Exception("Insufficient deposit. Transfer GAS to this contract before "
+                    + "proposing.");
+        }
+        int deposit = getProposalDeposit();
+        if (deposit > 0) {
+            depositMap.put(key, depositMap.getInteger(key) - deposit);
+        }
+        openProposalsMap.put(key, open + 1);
+        proposal.proposer = proposer;
+        proposal.deposit = deposit;
+    }
+
+    /**
+     * Checks whether an account with the given number of open proposals can open another one,
+     * i.e., whether it stays within the maximum number of open proposals and its deposit balance
+     * covers the proposal deposit.
+     */
+    private static int checkProposer(ByteString key, int open) {
+        int maxOpen = getMaxOpenProposals();
+        if (maxOpen > 0 && open >= maxOpen) {
+            return STATUS_TOO_MANY_PROPOSALS;
+        }
+        int deposit = getProposalDeposit();
+        if (deposit > 0 && depositMap.getInteger(key) < deposit) {
+            return STATUS_INSUFFICIENT_DEPOSIT;
+        }
+        return STATUS_OK;
+    }
+
+    /**
+     * Releases the proposer of a proposal that is removed. The deposit is credited back to the
+     * proposer if the proposal was accepted, and forfeited otherwise.
+     */
+    private static void settleDeposit(ProposalRecord proposal, boolean accepted) {
+        ByteString key = proposal.proposer.toByteString();
+        int open = openProposalsMap.getInteger(key) - 1;
+        if (open > 0) {
+            openProposalsMap.put(key, open);
+        } else {
+            openProposalsMap.delete(key);
+        }
+        if (proposal.deposit > 0) {
+            if (accepted) {
+                depositMap.put(key, depositMap.getInteger(key) + proposal.deposit);
+            } else {
+                contractMap.put(FORFEITED_DEPOSITS_KEY,
+                        contractMap.getInteger(FORFEITED_DEPOSITS_KEY) + proposal.deposit);
+            }
+        }
+    }
+
+    /**
+     * Drops the memes that a creation or bundle proposal staged in the MemeContract.
+     */
+    private static void dropStagedMemes(String memeId, ProposalRecord proposal) {
+        String[] staged;
+        if (proposal.type == CREATE) {
+            staged = new String[] {memeId};
+        } else if (proposal.type == BUNDLE && proposal.creations.length > 0) {
+            staged = proposal.creations;
+        } else {
+            return;
+        }
+        Contract.call(getMemeContract(), "dropStagedMemes", CallFlags.All,
+                new Object[] {staged});
+    }
+
+    private static void addProposalRecord(String memeId, ProposalRecord proposal) {
+        int seq = contractMap.getInteger(PROPOSAL_SEQ_KEY) + 1;
+        contractMap.put(PROPOSAL_SEQ_KEY, seq);
+        proposal.seq = seq;
+        saveProposalRecord(memeId, proposal);
+        proposalIndexMap.put(toIndexKey(seq), memeId);
+        dueIndexMap.put(createDueIndexKey(proposal.finalizationBlock, memeId), memeId);
+        contractMap.put(PROPOSAL_COUNT_KEY, contractMap.getInteger(PROPOSAL_COUNT_KEY) + 1);
+    }
+
+    private static byte[] createDueIndexKey(int finalizationBlock, String memeId) {
+        return concat(toIndexKey(finalizationBlock), toIdKey(memeId));
+    }
+
+    /**
+     * Derives the storage key of a meme id. The key has a fixed size, independent of the length of
+     * the id. The id itself is kept in the proposal record.
+     */
+    private static ByteString toIdKey(String memeId) {
+        return CryptoLib.ripemd160(new ByteString(memeId));
+    }
+
+    /**
+     * Decodes the finalization block from the first four bytes of a due index key.
+     */
+    private static int getFinalizationBlock(byte[] dueIndexKey) {
+        return ((dueIndexKey[0] & 0xff) << 24) | ((dueIndexKey[1] & 0xff) << 16)
+                | ((dueIndexKey[2] & 0xff) << 8) | (dueIndexKey[3] & 0xff);
+    }
+
+    /**
+     * Checks whether a key comes after the other key in the storage order, i.e., compares them
+     * byte by byte.
+     */
+    private static boolean isAfter(byte[] key, byte[] other) {
+        int length = key.length;
+        if (other.length < length) {
+            length = other.length;
+        }
+        for (int i = 0; i < length; i++) {
+            int a = key[i] & 0xff;
+            int b = other[i] & 0xff;
+            if (a != b) {
+                return a > b;
+            }
+        }
+        return key.length > other.length;
+    }
+
+    /**
+     * Encodes a sequence number as fixed-size big-endian key, so that the storage order of the
+     * keys matches their numeric order.
+     */
+    private static byte[] toIndexKey(int seq) {
+        byte[] key = new byte[4];
+        key[0] = (byte) ((seq >> 24) & 0xff);
+        key[1] = (byte) ((seq >> 16) & 0xff);
+        key[2] = (byte) ((seq >> 8) & 0xff);
+        key[3] = (byte) (seq & 0xff);
+        return key;
+    }
+
+    @DisplayName("Vote")
+    private static Event3Args<String, ByteString, Boolean> onVote;
+
+    /**
+     * Votes for or against the proposal of a meme.
+     *
+     * @param memeId the id of the meme.
+     * @param voter the voter.
+     * @param inFavor whether voting in favor of the proposal or against.
+     */
+    public static void vote(String memeId, Hash160 voter, boolean inFavor) throws Exception {
+        if (!Runtime.checkWitness(voter)) {
+            throw new Exception("No valid signature for the provided voter.");
+        }
+        int status = applyVote(memeId, getProposalRecord(memeId), voter.toByteString(), inFavor,
+                LedgerContract.currentIndex(), getFastTrackRule(), getFastTrackThreshold());
+        if (status == STATUS_NO_PROPOSAL) {
+            throw new Exception("No proposal found.");
+        }
+        if (status == STATUS_VOTE_CLOSED) {
+            throw new Exception("The vote for this meme is no longer open.");
+        }
+        if (status == STATUS_ALREADY_VOTED) {
+            throw new Exception("Already voted.");
+        }
+    }
+
+    /**
+     * Votes on multiple proposals in one transaction. The witness of the voter is checked once for
+     * the whole batch.
+     * <p>
+     * Votes that cannot be applied do not fail the batch. Instead, the status of each vote is
+     * returned at the same position as its meme id.
+     *
+     * @param voter the voter.
+     * @param memeIds the ids of the memes.
+     * @param inFavor for each meme id, whether voting in favor of the proposal or against.
+     * @return the status code of each vote.
+     * @throws Exception if the witness of the voter is missing or the batch is too large.
+     */
+    public static int[] voteMany(Hash160 voter, String[] memeIds, boolean[] inFavor)
+            throws Exception {
+        if (!Runtime.checkWitness(voter)) {
+            throw new Exception("No valid signature for the provided voter.");
+        }
+        if (memeIds.length != inFavor.length) {
+            throw new Exception("Expected one vote per meme id.");
+        }
+        if (memeIds.length > getMaxVoteBatchSize()) {
+            throw new Exception("Too many votes in one batch.");
+        }
+        ByteString voterByteString = voter.toByteString();
+        int currentIndex = LedgerContract.currentIndex();
+        int fastTrackRule = getFastTrackRule();
+        int fastTrackThreshold = getFastTrackThreshold();
+        int[] statuses = new int[memeIds.length];
+        for (int i = 0; i < memeIds.length; i++) {
+            statuses[i] = applyVote(memeIds[i], getProposalRecord(memeIds[i]), voterByteString,
+                    inFavor[i], currentIndex, fastTrackRule, fastTrackThreshold);
+        }
+        return statuses;
+    }
+
+    /**
+     * Applies votes that were signed off-chain by their voters. This allows a relayer to submit
+     * the votes of many voters in one transaction. The voters don't need to sign the transaction.
+     * <p>
+     * Each voter signs the concatenation of the big-endian network magic, this contract's script
+     * hash, the big-endian nonce, one byte that is 1 if voting in favor and 0 otherwise, and the
+     * meme id. The nonce has to be equal to {@link GovernanceContract#getVoteNonce(String)} of the
+     * proposal, which binds the signature to that proposal. Together with the voter map of the
+     * proposal, this prevents a signature from being replayed. The network magic prevents replays
+     * on another network, where the same deployment has the same script hash.
+     * <p>
+     * Votes that cannot be applied do not fail the batch. Instead, the status of each vote is
+     * returned at the same position.
+     *
+     * @param votes the signed votes.
+     * @return the status code of each vote.
+     * @throws Exception if the batch is too large.
+     */
+    public static int[] submitVotes(SignedVote[] votes) throws Exception {
+        if (votes.length > getMaxVoteBatchSize()) {
+            throw new Exception("Too many votes in one batch.");
+        }
+        byte[] domain = concat(toIndexKey(Runtime.getNetwork()),
+                Runtime.getExecutingScriptHash().toByteArray());
+        int currentIndex = LedgerContract.currentIndex();
+        int fastTrackRule = getFastTrackRule();
+        int fastTrackThreshold = getFastTrackThreshold();
+        int[] statuses = new int[votes.length];
+        for (int i = 0; i < votes.length; i++) {
+            SignedVote vote = votes[i];
+            ProposalRecord proposal = getProposalRecord(vote.memeId);
+            if (proposal != null && proposal.seq != vote.nonce) {
+                statuses[i] = STATUS_INVALID_NONCE;
+                continue;
+            }
+            if (proposal != null && !CryptoLib.verifyWithECDsa(
+                    new ByteString(createVoteMessage(domain, vote)), vote.voter,
+                    vote.signature, NamedCurve.Secp256r1)) {
+                statuses[i] = STATUS_INVALID_SIGNATURE;
+                continue;
+            }
+            statuses[i] = applyVote(vote.memeId, proposal, toScriptHash(vote.voter),
+                    vote.inFavor, currentIndex, fastTrackRule, fastTrackThreshold);
+        }
+        return statuses;
+    }
+
+    /**
+     * @param domain the network magic followed by the script hash of this contract.
+     */
+    private static byte[] createVoteMessage(byte[] domain, SignedVote vote) {
+        byte[] inFavor = new byte[]{0x00};
+        if (vote.inFavor) {
+            inFavor = new byte[]{0x01};
+        }
+        return concat(concat(concat(domain, toIndexKey(vote.nonce)), inFavor), vote.memeId);
+    }
+
+    /**
+     * Derives the script hash of the standard single signature account of a public key.
+     */
+    private static ByteString toScriptHash(ECPoint publicKey) {
+        byte[] key = publicKey.toByteString().toByteArray();
+        byte[] script = concat(concat(VERIFICATION_SCRIPT_PREFIX, key), VERIFICATION_SCRIPT_SUFFIX);
+        return CryptoLib.ripemd160(CryptoLib.sha256(new ByteString(script)));
+    }
+
+    /**
+     * Gets the nonce that votes signed off-chain for the current proposal of this meme id must
+     * contain.
+     *
+     * @throws Exception if there is no proposal for this meme id.
+     */
+    @Safe
+    public static int getVoteNonce(String memeId) throws Exception {
+        ProposalRecord proposal = getProposalRecord(memeId);
+        if (proposal == null) {
+            throw new Exception("No proposal found.");
+        }
+        return proposal.seq;
+    }
+
+    /**
+     * Records the vote of a voter whose witness or signature was already checked.
+     *
+     * @param proposal the proposal stored for the meme id, or null if there is none.
+     * @return {@link GovernanceContract#STATUS_OK} if the vote was recorded, or the status code
+     *         describing why it was not.
+     */
+    private static int checkVote(ProposalRecord proposal, ByteString voter, int currentIndex) {
+        if (proposal == null) {
+            return STATUS_NO_PROPOSAL;
+        }
+        if (!isVoteInProgress(proposal, currentIndex)) {
+            return STATUS_VOTE_CLOSED;
+        }
+        if (ctx.createMap(createVoterMapPrefix(proposal.seq)).get(voter) != null) {
+            return STATUS_ALREADY_VOTED;
+        }
+        return STATUS_OK;
+    }
+
+    /**
+     * Checks whether the voter can vote on the proposal for the given meme id without invoking
+     * {@link GovernanceContract#vote(String, Hash160, boolean)}. The witness of the voter is not
+     * checked.
+     *
+     * @return {@link GovernanceContract#STATUS_OK} if the vote would be applied, otherwise
+     *         {@link GovernanceContract#STATUS_NO_PROPOSAL},
+     *         {@link GovernanceContract#STATUS_VOTE_CLOSED} or
+     *         {@link GovernanceContract#STATUS_ALREADY_VOTED}.
+     */
+    @Safe
+    public static int canVote(String memeId, Hash160 voter) {
+        return checkVote(getProposalRecord(memeId), voter.toByteString(),
+                LedgerContract.currentIndex());
+    }
+
+    /**
+     * Checks whether the voter has voted on the proposal for the given meme id.
+     *
+     * @return true if the voter has voted, false if not or if there is no proposal.
+     */
+    @Safe
+    public static boolean hasVoted(String memeId, Hash160 voter) {
+        ProposalRecord proposal = getProposalRecord(memeId);
+        if (proposal == null) {
+            return false;
+        }
+        return ctx.createMap(createVoterMapPrefix(proposal.seq)).get(voter.toByteString()) != null;
+    }
+
+    /**
+     * Checks whether the proposal for the given meme id can be executed without invoking
+     * {@link GovernanceContract#execute(String)}. Whether the MemeContract accepts the change is
+     * not checked.
+     *
+     * @return {@link GovernanceContract#STATUS_OK} if the proposal can be executed, otherwise
+     *         {@link GovernanceContract#STATUS_NO_PROPOSAL} or
+     *         {@link GovernanceContract#STATUS_VOTE_IN_PROGRESS}.
+     */
+    @Safe
+    public static int canExecute(String memeId) {
+        return checkExecution(getProposalRecord(memeId), LedgerContract.currentIndex());
+    }
+
+    /**
+     * Checks whether a proposal for the given meme id can be created without invoking
+     * {@link GovernanceContract#proposeNewMeme(String, String, String, ByteString)} or
+     * {@link GovernanceContract#proposeRemoval(String)}. The image of a new meme is not checked,
+     * use {@link MemeContract#findMemeByImageHash(ByteString)} for that. The witness of the
+     * proposer is not checked either.
+     *
+     * @param memeId the meme id, or the proposal id for bundle and archival proposals.
+     * @param type the type of the proposal, i.e., {@link GovernanceContract#CREATE},
+     *        {@link GovernanceContract#REMOVE}, {@link GovernanceContract#BUNDLE} or
+     *        {@link GovernanceContract#ARCHIVE}.
+     * @param proposer the account that would send the proposal.
+     * @return {@link GovernanceContract#STATUS_OK} if the proposal can be created, otherwise
+     *         {@link GovernanceContract#STATUS_MEME_EXISTS},
+     *         {@link GovernanceContract#STATUS_MEME_ARCHIVED},
+     *         {@link GovernanceContract#STATUS_NO_MEME},
+     *         {@link GovernanceContract#STATUS_REMOVAL_PENDING},
+     *         {@link GovernanceContract#STATUS_VOTE_IN_PROGRESS},
+     *         {@link GovernanceContract#STATUS_AWAITING_EXECUTION},
+     *         {@link GovernanceContract#STATUS_TOO_MANY_PROPOSALS} or
+     *         {@link GovernanceContract#STATUS_INSUFFICIENT_DEPOSIT}.
+     */
+    @Safe
+    public static int canPropose(String memeId, int type, Hash160 proposer) {
+        if (type == CREATE) {
+            if (memeExists(memeId)) {
+                return STATUS_MEME_EXISTS;
+            }
+            if ((boolean) Contract.call(getMemeContract(), "isArchived", CallFlags.ReadOnly,
+                    new Object[] {memeId})) {
+                return STATUS_MEME_ARCHIVED;
+            }
+        }
+        int currentIndex = LedgerContract.currentIndex();
+        if (type == REMOVE) {
+            if (!memeExists(memeId)) {
+                return STATUS_NO_MEME;
+            }
+            if (isRemovalPending(memeId, memeId, currentIndex)) {
+                return STATUS_REMOVAL_PENDING;
+            }
+        }
+        ProposalRecord existing = getProposalRecord(memeId);
+        int status = checkExistingProposal(existing, currentIndex);
+        if (status != STATUS_OK) {
+            return status;
+        }
+        ByteString key = proposer.toByteString();
+        int open = openProposalsMap.getInteger(key);
+        // An overwritten proposal is released before the new one is charged.
+        if (existing != null && existing.proposer == proposer) {
+            open--;
+        }
+        return checkProposer(key, open);
+    }
+
+    private static int applyVote(String memeId, ProposalRecord proposal, ByteString voter,
+            boolean inFavor, int currentIndex, int fastTrackRule, int fastTrackThreshold) {
+        int status = checkVote(proposal, voter, currentIndex);
+        if (status != STATUS_OK) {
+            return status;
+        }
+        ctx.createMap(createVoterMapPrefix(proposal.seq)).put(voter, 1);
+
+        if (inFavor) {
+            proposal.votesInFavor += 1;
+        } else {
+            proposal.votesAgainst += 1;
+        }
+        if (isDecided(proposal, fastTrackRule, fastTrackThreshold)) {
+            // Close the vote by moving the finalization to the current block.
+            dueIndexMap.delete(createDueIndexKey(proposal.finalizationBlock, memeId));
+            proposal.finalizationBlock = currentIndex;
+            dueIndexMap.put(createDueIndexKey(currentIndex, memeId), memeId);
+        }
+        saveProposalRecord(memeId, proposal);
+        onVote.fire(memeId, voter, inFavor);
+        return STATUS_OK;
+    }
+
+    /**
+     * Checks whether the outcome of a proposal is settled by the fast track rule.
+     */
+    private static boolean isDecided(ProposalRecord proposal, int fastTrackRule,
+            int fastTrackThreshold) {
+        int votesInFavor = proposal.votesInFavor;
+        int votesAgainst = proposal.votesAgainst;
+        if (fastTrackRule == FAST_TRACK_SUPERMAJORITY) {
+            return votesInFavor >= fastTrackThreshold && votesInFavor >= 2 * votesAgainst;
+        }
+        return false;
+    }
+
+    private static byte[] createVoterMapPrefix(int seq) {
+        return concat(toByteArray(VOTER_MAP_PREPREFIX), toIndexKey(seq));
+    }
+
+    /**
+     * Deletes voter entries of a proposal that was executed or overwritten.
+     * <p>
+     * Voter maps are bound to the sequence number of their proposal and are not deleted when the
+     * proposal is cleared. Anyone can call this method to free their storage in bounded batches.
+     *
+     * @param seq the sequence number of the cleared proposal.
+     * @param maxCount the maximum number of voter entries to delete. Is capped at
+     *        {@link GovernanceContract#MAX_VOTER_CLEANUP}.
+     * @return the number of deleted voter entries.
+     * @throws Exception if the proposal with this sequence number is still active.
+     */
+    public static int cleanUpVoters(int seq, int maxCount) throws Exception {
+        if (seq <= 0 || seq > contractMap.getInteger(PROPOSAL_SEQ_KEY)
+                || proposalIndexMap.get(toIndexKey(seq)) != null) {
+            throw new Exception("The voters of active proposals cannot be removed.");
+        }
+        if (maxCount > MAX_VOTER_CLEANUP) {
+            maxCount = MAX_VOTER_CLEANUP;
+        }
+        byte[] voterMapPrefix = createVoterMapPrefix(seq);
+        StorageMap voterMap = ctx.createMap(voterMapPrefix);
+        Iterator<ByteString> iterator = Storage.find(ctx, voterMapPrefix,
+                (byte) (FindOptions.KeysOnly | FindOptions.RemovePrefix));
+        int deleted = 0;
+        while (deleted < maxCount && iterator.next()) {
+            voterMap.delete(iterator.get());
+            deleted++;
+        }
+        return deleted;
+    }
+
+    @DisplayName("MemeCreation")
+    private static Event4Args<String, String, String, ByteString> onCreation;
+
+    @DisplayName("MemeRemoval")
+    private static Event1Arg<String> onRemoval;
+
+    @DisplayName("MemeArchival")
+    private static Event2Args<String, Integer> onArchival;
+
+    @DisplayName("UnacceptedProposalRemoval")
+    private static Event1Arg<String> onRemovingUnacceptedProposal;
+
+    @DisplayName("ProposalExecutionFailure")
+    private static Event1Arg<String> onExecutionFailure;
+
+    /**
+     * Executes a proposal.
+     */
+    public static boolean execute(String memeId) throws Exception {
+        ProposalRecord proposal = getProposalRecord(memeId);
+        int status = checkExecution(proposal, LedgerContract.currentIndex());
+        if (status == STATUS_NO_PROPOSAL) {
+            throw new Exception("No proposal found for this id.");
+        }
+        if (status == STATUS_VOTE_IN_PROGRESS) {
+            throw new Exception("The voting timeframe for this id is still open.");
+        }
+        return executeProposal(memeId, proposal, getMemeContract());
+    }
+
+    private static int checkExecution(ProposalRecord proposal, int currentIndex) {
+        if (proposal == null) {
+            return STATUS_NO_PROPOSAL;
+        }
+        if (isVoteInProgress(proposal, currentIndex)) {
+            return STATUS_VOTE_IN_PROGRESS;
+        }
+        return STATUS_OK;
+    }
+
+    /**
+     * Executes multiple proposals in one transaction.
+     * <p>
+     * Proposals that cannot be executed do not fail the batch. Instead, the status of each
+     * execution is returned at the same position as its meme id.
+     *
+     * @param memeIds the ids of the memes whose proposals should be executed.
+     * @return the status code of each execution.
+     * @throws Exception if the batch is too large.
+     */
+    public static int[] executeMany(String[] memeIds) throws Exception {
+        if (memeIds.length > MAX_EXECUTE_BATCH_SIZE) {
+            throw new Exception("Too many proposals in one batch.");
+        }
+        Hash160 memeContract = getMemeContract();
+        int currentIndex = LedgerContract.currentIndex();
+        int[] statuses = new int[memeIds.length];
+        for (int i = 0; i < memeIds.length; i++) {
+            ProposalRecord proposal = getProposalRecord(memeIds[i]);
+            statuses[i] = checkExecution(proposal, currentIndex);
+            if (statuses[i] == STATUS_OK
+                    && !executeProposal(memeIds[i], proposal, memeContract)) {
+                statuses[i] = STATUS_EXECUTION_FAILED;
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Executes up to {@code maxCount} proposals whose voting timeframe is over.
+     * <p>
+     * Proposals whose execution fails are cleared as well and count toward {@code maxCount}, so
+     * that the work per call is bounded.
+     *
+     * @param maxCount the maximum number of proposals to process. Is capped at
+     *        {@link GovernanceContract#MAX_EXECUTE_BATCH_SIZE}.
+     * @return the number of successfully executed proposals.
+     */
+    public static int executeDue(int maxCount) {
+        if (maxCount > MAX_EXECUTE_BATCH_SIZE) {
+            maxCount = MAX_EXECUTE_BATCH_SIZE;
+        }
+        Hash160 memeContract = getMemeContract();
+        int currentIndex = LedgerContract.currentIndex();
+        Iterator<Iterator.Struct<ByteString, ByteString>> iterator =
+                Storage.find(ctx, toByteArray(DUE_INDEX_PREFIX), FindOptions.RemovePrefix);
+        int processed = 0;
+        int executed = 0;
+        while (processed < maxCount && iterator.next()) {
+            Iterator.Struct<ByteString, ByteString> pair = iterator.get();
+            if (getFinalizationBlock(pair.key.toByteArray()) > currentIndex) {
+                break;
+            }
+            String memeId = pair.value.toString();
+            processed++;
+            if (executeProposal(memeId, getProposalRecord(memeId), memeContract)) {
+                executed++;
+            }
+        }
+        return executed;
+    }
+
+    /**
+     * Executes a proposal whose voting timeframe is over.
+     * <p>
+     * If the MemeContract rejects the change of an accepted proposal, the proposal is cleared
+     * anyway, so that it does not block its id and is not retried forever. Its staged memes are
+     * dropped and the deposit is credited back, because the proposer is not at fault.
+     *
+     * @return true if the proposal was executed, false if the MemeContract rejected the change.
+     */
+    private static boolean executeProposal(String memeId, ProposalRecord proposal,
+            Hash160 memeContract) {
+        if (isAccepted(proposal)) {
+            if (applyProposal(memeId, proposal, memeContract)) {
+                clearProposal(memeId, proposal, true);
+                return true;
+            }
+            onExecutionFailure.fire(memeId);
+            dropStagedMemes(memeId, proposal);
+            clearProposal(memeId, proposal, true);
+            return false;
+        }
+        onRemovingUnacceptedProposal.fire(memeId);
+        dropStagedMemes(memeId, proposal);
+        clearProposal(memeId, proposal, false);
+        return true;
+    }
+
+    /**
+     * Applies the change of an accepted proposal to the MemeContract.
+     *
+     * @return true if the change was applied, false if the MemeContract rejected it.
+     */
+    private static boolean applyProposal(String memeId, ProposalRecord proposal,
+            Hash160 memeContract) {
+        if (proposal.type == CREATE) {
+            Meme meme = (Meme) Contract.call(memeContract, "activateMeme", CallFlags.All,
+                    new Object[] {memeId});
+            if (meme == null) {
+                return false;
+            }
+            onCreation.fire(meme.id, meme.description, meme.url, meme.imageHash);
+        } else if (proposal.type == BUNDLE) {
+            AppliedBundle applied = (AppliedBundle) Contract.call(memeContract, "applyBundle",
+                    CallFlags.All, new Object[] {proposal.creations, proposal.removals});
+            if (applied == null) {
+                return false;
+            }
+            for (int i = 0; i < applied.created.length; i++) {
+                Meme meme = applied.created[i];
+                onCreation.fire(meme.id, meme.description, meme.url, meme.imageHash);
+            }
+            for (int i = 0; i < applied.removed.size(); i++) {
+                onRemoval.fire(applied.removed.get(i));
+            }
+        } else if (proposal.type == ARCHIVE) {
+            int[] indexes = (int[]) Contract.call(memeContract, "archiveMemes",
+                    CallFlags.All, new Object[] {proposal.removals});
+            if (indexes == null) {
+                return false;
+            }
+            // The archive index of a meme is needed to prove it later.
+            for (int i = 0; i < indexes.length; i++) {
+                if (indexes[i] >= 0) {
+                    onArchival.fire(proposal.removals[i], indexes[i]);
+                }
+            }
+        } else {
+            boolean removeMeme = (boolean) Contract.call(memeContract, "removeMeme",
+                    CallFlags.All, new Object[] {memeId});
+            if (!removeMeme) {
+                return false;
+            }
+            onRemoval.fire(memeId);
+        }
+        return true;
+    }
+
+    private static boolean isVoteInProgress(ProposalRecord proposal, int currentIndex) {
+        return currentIndex < proposal.finalizationBlock;
+    }
+
+    private static void clearProposal(String memeId, ProposalRecord proposal, boolean accepted) {
+        settleDeposit(proposal, accepted);
+        releaseRemovals(memeId, proposal);
+        proposalMap.delete(toIdKey(memeId));
+        // The voter map is bound to the proposal's sequence number and is left for cleanUpVoters.
+        proposalIndexMap.delete(toIndexKey(proposal.seq));
+        dueIndexMap.delete(createDueIndexKey(proposal.finalizationBlock, memeId));
+        contractMap.put(PROPOSAL_COUNT_KEY, contractMap.getInteger(PROPOSAL_COUNT_KEY) - 1);
+    }
+
+    /**
+     * Gets the meme ids of proposals whose voting timeframe ended at or before the given block,
+     * ordered by their finalization block.
+     * <p>
+     * Only the part of the finalization block index up to {@code uptoBlock} is iterated, i.e.,
+     * proposals that are still open are not touched.
+     *
+     * @param uptoBlock the block up to which finalized proposals are returned. Pass the current
+     *        block index to get the proposals that can be executed now.
+     * @param cursor the cursor returned with the previous page, or null to start at the beginning.
+     * @param limit the maximum number of meme ids to return. Is clamped to at least 1 and at most
+     *        {@link GovernanceContract#MAX_GET_PROPOSALS}.
+     * @return the page of meme ids with the cursor to pass to get the next page.
+     */
+    @Safe
+    public static DueProposalPage getDueProposals(int uptoBlock, ByteString cursor, int limit) {
+        if (limit < 1) {
+            limit = 1;
+        }
+        if (limit > MAX_GET_PROPOSALS) {
+            limit = MAX_GET_PROPOSALS;
+        }
+        List<String> memeIds = new List<>();
+        Iterator<Iterator.Struct<ByteString, ByteString>> iterator =
+                Storage.find(ctx, toByteArray(DUE_INDEX_PREFIX), FindOptions.RemovePrefix);
+        boolean pastCursor = cursor == null;
+        boolean hasMore = false;
+        while (iterator.next()) {
+            Iterator.Struct<ByteString, ByteString> pair = iterator.get();
+            byte[] key = pair.key.toByteArray();
+            if (getFinalizationBlock(key) > uptoBlock) {
+                break;
+            }
+            if (!pastCursor) {
+                pastCursor = isAfter(key, cursor.toByteArray());
+                if (!pastCursor) {
+                    continue;
+                }
+            }
+            if (memeIds.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            memeIds.add(pair.value.toString());
+            cursor = pair.key;
+        }
+        return new DueProposalPage(memeIds, cursor, hasMore);
+    }
+
+    /**
+     * Gets the number of stored proposals, i.e., open proposals and closed proposals that were not
+     * executed yet.
+     */
+    @Safe
+    public static int getProposalCount() {
+        return contractMap.getInteger(PROPOSAL_COUNT_KEY);
+    }
+
+    /**
+     * Gets the number of accepted proposals that await their execution and of rejected proposals
+     * that were not cleared yet, one page of the finalization block index at a time.
+     * <p>
+     * A proposal closes when its finalization block passes, without any transaction. The closed
+     * proposals are therefore counted by iterating the finalization block index up to the current
+     * block, and each of them has to be read to know its outcome. At most {@code limit} closed
+     * proposals are counted per call. Sum up the counts of all pages until {@code hasMore} is
+     * false; the open proposals are then the {@code total} minus the closed ones. If only the
+     * total is needed, use {@link GovernanceContract#getProposalCount()}, which does not iterate.
+     *
+     * @param cursor the cursor returned with the previous page, or null to start at the beginning.
+     * @param limit the maximum number of closed proposals to count. Is clamped to at least 1 and
+     *        at most {@link GovernanceContract#MAX_GET_PROPOSALS}.
+     * @return the counts of this page with the cursor to pass to get the next page.
+     */
+    @Safe
+    public static ProposalCounts getProposalCounts(ByteString cursor, int limit) {
+        if (limit < 1) {
+            limit = 1;
+        }
+        if (limit > MAX_GET_PROPOSALS) {
+            limit = MAX_GET_PROPOSALS;
+        }
+        int currentIndex = LedgerContract.currentIndex();
+        Iterator<Iterator.Struct<ByteString, ByteString>> iterator =
+                Storage.find(ctx, toByteArray(DUE_INDEX_PREFIX), FindOptions.RemovePrefix);
+        boolean pastCursor = cursor == null;
+        boolean hasMore = false;
+        int accepted = 0;
+        int rejected = 0;
+        while (iterator.next()) {
+            Iterator.Struct<ByteString, ByteString> pair = iterator.get();
+            byte[] key = pair.key.toByteArray();
+            if (getFinalizationBlock(key) > currentIndex) {
+                break;
+            }
+            if (!pastCursor) {
+                pastCursor = isAfter(key, cursor.toByteArray());
+                if (!pastCursor) {
+                    continue;
+                }
+            }
+            if (accepted + rejected == limit) {
+                hasMore = true;
+                break;
+            }
+            if (isAccepted(getProposalRecord(pair.value.toString()))) {
+                accepted++;
+            } else {
+                rejected++;
+            }
+            cursor = pair.key;
+        }
+        return new ProposalCounts(contractMap.getInteger(PROPOSAL_COUNT_KEY), accepted, rejected,
+                cursor, hasMore);
+    }
+
+    /**
+     * Gets the proposal for the specified meme id.
+     */
+    @Safe
+    public static Proposal getProposal(String memeId) {
+        ProposalRecord proposal = getProposalRecord(memeId);
+        Meme meme = proposal.meme;
+        if (proposal.type == CREATE) {
+            meme = ((Meme[]) Contract.call(getMemeContract(), "getStagedMemes",
+                    CallFlags.ReadOnly, new Object[] {new String[] {memeId}}))[0];
+        }
+        return toProposal(proposal, meme, LedgerContract.currentIndex());
+    }
+
+    private static Proposal toProposal(ProposalRecord proposal, Meme meme, int currentIndex) {
+        boolean voteInProgress = isVoteInProgress(proposal, currentIndex);
+        if (proposal.type == BUNDLE || proposal.type == ARCHIVE) {
+            // The changes of a bundle are available through getBundle, the memes of an archival
+            // through getArchival.
+            meme = new Meme(proposal.id, null, null, null);
+        }
+        return new Proposal(meme, proposal.type == CREATE, voteInProgress,
+                proposal.finalizationBlock, proposal.votesInFavor, proposal.votesAgainst,
+                proposal.type);
+    }
+
+    /**
+     * Converts proposal records into proposals. Null records result in null proposals.
+     * <p>
+     * Removal proposals carry a snapshot of the meme they remove. The staged memes of all creation
+     * proposals are fetched from the MemeContract with a single call.
+     */
+    private static List<Proposal> toProposals(List<ProposalRecord> records, int currentIndex) {
+        int creationCount = 0;
+        for (int i = 0; i < records.size(); i++) {
+            ProposalRecord record = records.get(i);
+            if (record != null && record.type == CREATE) {
+                creationCount++;
+            }
+        }
+        Meme[] staged = new Meme[0];
+        if (creationCount > 0) {
+            String[] creationIds = new String[creationCount];
+            creationCount = 0;
+            for (int i = 0; i < records.size(); i++) {
+                ProposalRecord record = records.get(i);
+                if (record != null && record.type == CREATE) {
+                    creationIds[creationCount++] = record.id;
+                }
+            }
+            staged = (Meme[]) Contract.call(getMemeContract(), "getStagedMemes",
+                    CallFlags.ReadOnly, new Object[] {creationIds});
+        }
+
+        List<Proposal> proposals = new List<>();
+        creationCount = 0;
+        for (int i = 0; i < records.size(); i++) {
+            ProposalRecord record = records.get(i);
+            if (record == null) {
+                proposals.add(null);
+            } else if (record.type == CREATE) {
+                proposals.add(toProposal(record, staged[creationCount++], currentIndex));
+            } else {
+                proposals.add(toProposal(record, record.meme, currentIndex));
+            }
+        }
+        return proposals;
+    }
+
+    /**
+     * Gets the proposals for the given meme ids in the order of the ids.
+     * <p>
+     * The staged memes of all creation proposals are fetched from the MemeContract with a single
+     * call.
+     *
+     * @param memeIds the meme ids. At most {@link GovernanceContract#MAX_GET_PROPOSALS} ids are
+     *        allowed.
+     * @return the proposals. Contains null for ids without a proposal.
+     * @throws Exception if more than {@link GovernanceContract#MAX_GET_PROPOSALS} ids are passed.
+     */
+    @Safe
+    public static Proposal[] getProposalsByIds(String[] memeIds) throws Exception {
+        if (memeIds.length > MAX_GET_PROPOSALS) {
+            throw new Exception("Too many meme ids.");
+        }
+        List<ProposalRecord> records = new List<>();
+        for (int i = 0; i < memeIds.length; i++) {
+            records.add(getProposalRecord(memeIds[i]));
+        }
+        List<Proposal> found = toProposals(records, LedgerContract.currentIndex());
+        Proposal[] proposals = new Proposal[memeIds.length];
+        for (int i = 0; i < memeIds.length; i++) {
+            proposals[i] = found.get(i);
+        }
+        return proposals;
+    }
+
+    /**
+     * Gets the memes that a bundle proposal creates and removes.
+     *
+     * @throws Exception if there is no bundle proposal with this id.
+     */
+    @Safe
+    public static Bundle getBundle(String bundleId) throws Exception {
+        ProposalRecord proposal = getProposalRecord(bundleId);
+        if (proposal == null || proposal.type != BUNDLE) {
+            throw new Exception("No bundle found for this id.");
+        }
+        Meme[] creations = new Meme[0];
+        if (proposal.creations.length > 0) {
+            creations = (Meme[]) Contract.call(getMemeContract(), "getStagedMemes",
+                    CallFlags.ReadOnly, new Object[] {proposal.creations});
+        }
+        return new Bundle(bundleId, creations, proposal.removals);
+    }
+
+    /**
+     * Gets the ids of the memes that an archival proposal archives.
+     *
+     * @throws Exception if there is no archival proposal with this id.
+     */
+    @Safe
+    public static String[] getArchival(String archivalId) throws Exception {
+        ProposalRecord proposal = getProposalRecord(archivalId);
+        if (proposal == null || proposal.type != ARCHIVE) {
+            throw new Exception("No archival found for this id.");
+        }
+        return proposal.removals;
+    }
+
+    /**
+     * Gets a list of proposals.
+     * <p>
+     * The proposal records are read straight from the iterator, and the chain height and the
+     * MemeContract are read once per invocation.
+     */
+    @Safe
+    public static List<Proposal> getProposals(int startingIndex) {
+        int finalIndex = startingIndex + MAX_GET_PROPOSALS;
+        List<ProposalRecord> records = new List<>();
+        Iterator<ProposalRecord> iterator = Storage.find(ctx, toByteArray(PROPOSAL_PREFIX),
+                (byte) (FindOptions.ValuesOnly | FindOptions.DeserializeValues));
+        int i = 0;
+        while (iterator.next()) {
+            if (i == finalIndex) {
+                break;
+            }
+            if (i >= startingIndex) {
+                records.add(iterator.get());
+            }
+            i++;
+        }
+        return toProposals(records, LedgerContract.currentIndex());
+    }
+
+    /**
+     * Gets the proposals created after the proposal with the given cursor, in creation order.
+     * <p>
+     * The sequence numbers following the cursor are looked up directly, so that each page costs
+     * the same regardless of its position. At most {@code limit} sequence numbers are looked up per
+     * call. Because executed proposals leave gaps, a page may contain less than {@code limit}
+     * proposals even if more proposals follow.
+     *
+     * @param cursor the cursor returned with the previous page, or 0 to start at the beginning.
+     * @param limit the maximum number of proposals to return. Is capped at
+     *        {@link GovernanceContract#MAX_GET_PROPOSALS}.
+     * @return the page of proposals with the cursor to pass to get the next page.
+     */
+    @Safe
+    public static ProposalPage getProposalsAfter(int cursor, int limit) {
+        if (limit > MAX_GET_PROPOSALS) {
+            limit = MAX_GET_PROPOSALS;
+        }
+        int lastSeq = contractMap.getInteger(PROPOSAL_SEQ_KEY);
+        int endSeq = cursor + limit;
+        if (endSeq > lastSeq) {
+            endSeq = lastSeq;
+        }
+        List<ProposalRecord> records = new List<>();
+        int seq = cursor;
+        while (seq < endSeq) {
+            seq++;
+            ByteString memeId = proposalIndexMap.get(toIndexKey(seq));
+            if (memeId != null) {
+                records.add(getProposalRecord(memeId.toString()));
+            }
+        }
+        return new ProposalPage(toProposals(records, LedgerContract.currentIndex()), seq,
+                seq < lastSeq);
+    }
+
+    /**
+     * Gets summaries of the proposals created after the proposal with the given cursor, in
+     * creation order. Works like {@link GovernanceContract#getProposalsAfter(int, int)}, but
+     * returns only the id, type and tallies of each proposal. Thus, no memes are fetched from the
+     * MemeContract.
+     *
+     * @param cursor the cursor returned with the previous page, or 0 to start at the beginning.
+     * @param limit the maximum number of proposals to return. Is capped at
+     *        {@link GovernanceContract#MAX_GET_PROPOSALS}.
+     * @return the page of proposal summaries with the cursor to pass to get the next page.
+     */
+    @Safe
+    public static ProposalSummaryPage getProposalSummariesAfter(int cursor, int limit) {
+        if (limit > MAX_GET_PROPOSALS) {
+            limit = MAX_GET_PROPOSALS;
+        }
+        int lastSeq = contractMap.getInteger(PROPOSAL_SEQ_KEY);
+        int endSeq = cursor + limit;
+        if (endSeq > lastSeq) {
+            endSeq = lastSeq;
+        }
+        int currentIndex = LedgerContract.currentIndex();
+        List<ProposalSummary> proposals = new List<>();
+        int seq = cursor;
+        while (seq < endSeq) {
+            seq++;
+            ByteString memeId = proposalIndexMap.get(toIndexKey(seq));
+            if (memeId != null) {
+                ProposalRecord proposal = getProposalRecord(memeId.toString());
+                proposals.add(new ProposalSummary(proposal.id, proposal.type,
+                        isVoteInProgress(proposal, currentIndex), proposal.finalizationBlock,
+                        proposal.votesInFavor, proposal.votesAgainst));
+            }
+        }
+        return new ProposalSummaryPage(proposals, seq, seq < lastSeq);
+    }
+
+    /**
+     * Gets the proposals created before the proposal with the given cursor, newest first.
+     * <p>
+     * Walks the sequence numbers down from the cursor, so that each page costs the same regardless
+     * of the number of proposals. At most {@code limit} sequence numbers are looked up per call.
+     * Because executed proposals leave gaps, a page may contain less than {@code limit} proposals
+     * even if more proposals follow.
+     *
+     * @param cursor the cursor returned with the previous page, or 0 to start at the newest
+     *        proposal.
+     * @param limit the maximum number of proposals to return. Is capped at
+     *        {@link GovernanceContract#MAX_GET_PROPOSALS}.
+     * @return the page of proposals with the cursor to pass to get the next page.
+     */
+    @Safe
+    public static ProposalPage getLatestProposals(int cursor, int limit) {
+        if (limit > MAX_GET_PROPOSALS) {
+            limit = MAX_GET_PROPOSALS;
+        }
+        if (cursor == 0) {
+            cursor = contractMap.getInteger(PROPOSAL_SEQ_KEY) + 1;
+        }
+        int endSeq = cursor - limit;
+        if (endSeq < 1) {
+            endSeq = 1;
+        }
+        List<ProposalRecord> records = new List<>();
+        int seq = cursor;
+        while (seq > endSeq) {
+            seq--;
+            ByteString memeId = proposalIndexMap.get(toIndexKey(seq));
+            if (memeId != null) {
+                records.add(getProposalRecord(memeId.toString()));
+            }
+        }
+        return new ProposalPage(toProposals(records, LedgerContract.currentIndex()), seq,
+                seq > 1);
     }
 
 }
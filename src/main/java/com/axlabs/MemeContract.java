@@ -1,5 +1,6 @@
 package com.axlabs;
 
+import static io.neow3j.devpack.Helper.concat;
 import static io.neow3j.devpack.Helper.toByteArray;
 import io.neow3j.devpack.ByteString;
 import io.neow3j.devpack.Hash160;
@@ -13,19 +14,85 @@ import io.neow3j.devpack.annotations.ManifestExtra;
 import io.neow3j.devpack.annotations.OnDeployment;
 import io.neow3j.devpack.annotations.Safe;
 import io.neow3j.devpack.constants.FindOptions;
+import io.neow3j.devpack.contracts.ContractManagement;
+import io.neow3j.devpack.contracts.CryptoLib;
+import io.neow3j.devpack.contracts.StdLib;
 
 @ManifestExtra(key = "author", value = "AxLabs")
 public class MemeContract {
 
     static final int MAX_GET_MEMES = 100;
     static final byte[] OWNER_KEY = new byte[]{0x0d};
-    static final byte DESC_MAP_PREFIX = 2;
+    // Holds the sequence number that was assigned to the most recently created meme.
+    static final byte[] MEME_SEQ_KEY = new byte[]{0x0e};
+    // Holds the catalog version, i.e., the sequence number of the most recent change log entry.
+    static final byte[] CHANGE_SEQ_KEY = new byte[]{0x0f};
+    // Holds the number of change log entries to keep. 0 keeps all entries.
+    static final byte[] CHANGE_RETENTION_KEY = new byte[]{0x10};
+    // Holds the sequence number of the most recent change log entry that was compacted.
+    static final byte[] COMPACTED_SEQ_KEY = new byte[]{0x11};
+    // Holds the number of active memes.
+    static final byte[] MEME_COUNT_KEY = new byte[]{0x12};
+    // Holds the url prefix dictionary as one serialized list, so that it is read with a single
+    // storage access. The prefix with id i is at index i - 1.
+    static final byte[] URL_PREFIXES_KEY = new byte[]{0x13};
+    // Hold the Merkle root over all archived memes and the number of archived memes.
+    static final byte[] ARCHIVE_ROOT_KEY = new byte[]{0x14};
+    static final byte[] ARCHIVE_SIZE_KEY = new byte[]{0x15};
+    // Holds the roots of the perfect subtrees that make up the archive's Merkle tree, indexed by
+    // their height. Appending a meme only touches these roots, so the archived memes themselves
+    // are not needed to update the root.
+    static final byte[] ARCHIVE_PEAKS_KEY = new byte[]{0x16};
+    static final byte MEME_MAP_PREFIX = 5;
+    static final byte MEME_INDEX_PREFIX = 6;
+    static final byte CHANGE_LOG_PREFIX = 7;
+    static final byte IMAGE_INDEX_PREFIX = 8;
+    static final byte ID_INDEX_PREFIX = 9;
+    static final byte FOLDED_ID_INDEX_PREFIX = 10;
+    // The number of leading bytes of a meme id that are used in the keys of the search indexes.
+    // Keeps the keys below the maximum key size of the storage.
+    static final int MAX_INDEXED_ID_LENGTH = 32;
+    static final int MAX_URL_PREFIXES = 16;
+    static final byte ARCHIVED_PREFIX = 12;
+    static final byte STAGED_MAP_PREFIX = 13;
+    // Image hashes are sha256 hashes. They are used as keys of the image index, so their size has
+    // to be fixed.
+    static final int IMAGE_HASH_LENGTH = 32;
+    // The maximum height of the archive's Merkle tree, i.e., enough for 2^32 archived memes.
+    static final int MAX_ARCHIVE_HEIGHT = 32;
+    // Domain separation of leaves and inner nodes of the archive's Merkle tree.
+    static final byte[] LEAF_HASH_PREFIX = new byte[]{0x00};
+    static final byte[] NODE_HASH_PREFIX = new byte[]{0x01};
+
+    static final int CHANGE_REMOVE = 0;
+    static final int CHANGE_CREATE = 1;
+    static final int CHANGE_ARCHIVE = 2;
+    // The maximum number of old change log entries that are compacted per new entry. Allows the
+    // log to catch up with a lowered retention without compacting it all in one transaction.
+    static final int MAX_COMPACTION_STEPS = 2;
 
     static StorageContext ctx = Storage.getStorageContext();
     static final StorageMap contractMap = ctx.createMap((byte) 1);
-    static final StorageMap descriptionMap = ctx.createMap(DESC_MAP_PREFIX);
-    static final StorageMap urlMap = ctx.createMap((byte) 3);
-    static final StorageMap imgHashMap = ctx.createMap((byte) 4);
+    // Holds one serialized MemeRecord per active meme, keyed by the hash of the id. Thus, whether a
+    // meme exists is known from the key alone.
+    static final StorageMap memeMap = ctx.createMap(MEME_MAP_PREFIX);
+    // Holds the records of the memes that were staged for creation proposals, keyed like memeMap.
+    // They are moved to memeMap when they are activated.
+    static final StorageMap stagedMap = ctx.createMap(STAGED_MAP_PREFIX);
+    // Maps the big-endian sequence number of a meme to its id. Used for cursor-based paging.
+    static final StorageMap memeIndexMap = ctx.createMap(MEME_INDEX_PREFIX);
+    // Maps the big-endian sequence number of a change to the serialized Change. Entries are only
+    // appended, and removed from the front when the log is compacted.
+    static final StorageMap changeLogMap = ctx.createMap(CHANGE_LOG_PREFIX);
+    // Maps the image hash of each active and staged meme to the meme id.
+    static final StorageMap imageIndexMap = ctx.createMap(IMAGE_INDEX_PREFIX);
+    // Map the leading bytes of each active meme id, followed by the hash of the id, to the meme id.
+    // A prefix scan over them yields the memes whose id starts with the prefix. The folded index
+    // holds the ids with ASCII letters in lower case.
+    static final StorageMap idIndexMap = ctx.createMap(ID_INDEX_PREFIX);
+    static final StorageMap foldedIdIndexMap = ctx.createMap(FOLDED_ID_INDEX_PREFIX);
+    // Marks the hashed ids of archived memes, so that their ids cannot be used again.
+    static final StorageMap archivedMap = ctx.createMap(ARCHIVED_PREFIX);
 
     @OnDeployment
     public static void deploy(Object data, boolean update) throws Exception {
@@ -40,6 +107,18 @@ public class MemeContract {
         }
     }
 
+    /**
+     * Updates this contract.
+     * <p>
+     * This method is intended to be called from the governance contract.
+     */
+    public static void update(ByteString script, String manifest) throws Exception {
+        if (Runtime.getCallingScriptHash() != getOwner()) {
+            throw new Exception("No authorization.");
+        }
+        ContractManagement.update(script, manifest);
+    }
+
     /**
      * Initializes the connection to the government contract.
      * <p>
@@ -71,15 +150,336 @@ public class MemeContract {
         if (Runtime.getCallingScriptHash() != getOwner()) {
             return false;
         }
-        if (descriptionMap.get(memeId) != null) {
+        Meme meme = new Meme(memeId, description, url, imageHash);
+        if (!canStage(meme)) {
+            return false;
+        }
+        storeMeme(meme, getUrlPrefixes());
+        return true;
+    }
+
+    private static void storeMeme(Meme meme, List<String> prefixes) {
+        imageIndexMap.put(meme.imageHash, meme.id);
+        activate(encode(meme, prefixes));
+    }
+
+    /**
+     * Checks whether a meme can be staged, i.e., whether its data is complete and neither its id
+     * nor its image is used by another meme.
+     */
+    private static boolean canStage(Meme meme) {
+        ByteString key = toIdKey(meme.id);
+        return isValid(meme) && memeMap.get(key) == null && stagedMap.get(key) == null
+                && archivedMap.get(key) == null
+                && imageIndexMap.get(meme.imageHash) == null;
+    }
+
+    private static void putStaged(Meme meme, List<String> prefixes) {
+        stagedMap.put(toIdKey(meme.id), StdLib.serialize(encode(meme, prefixes)));
+        imageIndexMap.put(meme.imageHash, meme.id);
+    }
+
+    /**
+     * Makes a meme visible by assigning it the next sequence number.
+     */
+    private static void activate(MemeRecord record) {
+        int seq = contractMap.getInteger(MEME_SEQ_KEY) + 1;
+        contractMap.put(MEME_SEQ_KEY, seq);
+        record.seq = seq;
+        memeMap.put(toIdKey(record.meme.id), StdLib.serialize(record));
+        memeIndexMap.put(toIndexKey(seq), record.meme.id);
+        byte[] id = new ByteString(record.meme.id).toByteArray();
+        idIndexMap.put(createSearchKey(id, record.meme.id), record.meme.id);
+        foldedIdIndexMap.put(createSearchKey(fold(id), record.meme.id), record.meme.id);
+        contractMap.put(MEME_COUNT_KEY, contractMap.getInteger(MEME_COUNT_KEY) + 1);
+        appendChange(CHANGE_CREATE, record.meme.id);
+    }
+
+    /**
+     * Appends an entry to the change log and compacts the log according to the retention.
+     */
+    private static void appendChange(int op, String memeId) {
+        int seq = contractMap.getInteger(CHANGE_SEQ_KEY) + 1;
+        contractMap.put(CHANGE_SEQ_KEY, seq);
+        changeLogMap.put(toIndexKey(seq), StdLib.serialize(new Change(seq, op, memeId)));
+
+        int retention = contractMap.getInteger(CHANGE_RETENTION_KEY);
+        if (retention == 0) {
+            return;
+        }
+        int compacted = contractMap.getInteger(COMPACTED_SEQ_KEY);
+        int steps = 0;
+        while (compacted < seq - retention && steps < MAX_COMPACTION_STEPS) {
+            compacted++;
+            changeLogMap.delete(toIndexKey(compacted));
+            steps++;
+        }
+        contractMap.put(COMPACTED_SEQ_KEY, compacted);
+    }
+
+    /**
+     * Creates the record of a meme. If the url of the meme starts with a prefix from the
+     * url prefix dictionary, only the rest of the url is stored, together with the prefix id.
+     *
+     * @param prefixes the url prefix dictionary, see {@link MemeContract#getUrlPrefixes()}.
+     */
+    private static MemeRecord encode(Meme meme, List<String> prefixes) {
+        byte[] url = new ByteString(meme.url).toByteArray();
+        int prefixId = 0;
+        int prefixLength = 0;
+        for (int i = 0; i < prefixes.size(); i++) {
+            byte[] prefix = new ByteString(prefixes.get(i)).toByteArray();
+            // Prefer the longest matching prefix.
+            if (prefix.length > prefixLength && startsWith(url, prefix)) {
+                prefixId = i + 1;
+                prefixLength = prefix.length;
+            }
+        }
+        if (prefixId == 0) {
+            return new MemeRecord(meme, 0);
+        }
+        byte[] suffix = new byte[url.length - prefixLength];
+        for (int i = 0; i < suffix.length; i++) {
+            suffix[i] = url[prefixLength + i];
+        }
+        MemeRecord record = new MemeRecord(
+                new Meme(meme.id, meme.description, new ByteString(suffix).toString(),
+                        meme.imageHash), 0);
+        record.urlPrefix = prefixId;
+        return record;
+    }
+
+    /**
+     * Gets the meme of a record with its full url.
+     *
+     * @param prefixes the url prefix dictionary, see {@link MemeContract#getUrlPrefixes()}.
+     */
+    private static Meme toMeme(MemeRecord record, List<String> prefixes) {
+        if (record.urlPrefix == 0) {
+            return record.meme;
+        }
+        Meme meme = record.meme;
+        String prefix = prefixes.get(record.urlPrefix - 1);
+        return new Meme(meme.id, meme.description, prefix + meme.url, meme.imageHash);
+    }
+
+    private static void deleteImageIndex(Meme meme) {
+        ByteString memeId = imageIndexMap.get(meme.imageHash);
+        if (memeId != null && memeId.toString().equals(meme.id)) {
+            imageIndexMap.delete(meme.imageHash);
+        }
+    }
+
+    private static MemeRecord getMemeRecord(String memeId) {
+        ByteString record = memeMap.get(toIdKey(memeId));
+        if (record == null) {
+            return null;
+        }
+        return (MemeRecord) StdLib.deserialize(record);
+    }
+
+    private static MemeRecord getStagedRecord(String memeId) {
+        ByteString record = stagedMap.get(toIdKey(memeId));
+        if (record == null) {
+            return null;
+        }
+        return (MemeRecord) StdLib.deserialize(record);
+    }
+
+    private static boolean isValid(Meme meme) {
+        return meme.id != null && meme.description != null && meme.url != null
+                && meme.imageHash != null && meme.imageHash.length() == IMAGE_HASH_LENGTH;
+    }
+
+    /**
+     * Stages a meme that is proposed for creation. The meme is stored apart from the active memes
+     * and is not visible until it is activated with {@link MemeContract#activateMeme(String)}.
+     * <p>
+     * This method is intended to be called from the governance contract.
+     *
+     * @return true if the meme was staged, false if a meme with this id or this image exists or
+     *         is already staged.
+     */
+    public static boolean stageMeme(String memeId, String description, String url,
+            ByteString imageHash) {
+        if (Runtime.getCallingScriptHash() != getOwner()) {
+            return false;
+        }
+        Meme meme = new Meme(memeId, description, url, imageHash);
+        if (!canStage(meme)) {
+            return false;
+        }
+        putStaged(meme, getUrlPrefixes());
+        return true;
+    }
+
+    /**
+     * Stages multiple memes at once. Either all memes are staged or none.
+     * <p>
+     * This method is intended to be called from the governance contract.
+     */
+    public static boolean stageMemes(Meme[] memes) {
+        if (Runtime.getCallingScriptHash() != getOwner()) {
+            return false;
+        }
+        for (int i = 0; i < memes.length; i++) {
+            if (!canStage(memes[i])) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (memes[j].imageHash.equals(memes[i].imageHash)) {
+                    return false;
+                }
+            }
+        }
+        List<String> prefixes = getUrlPrefixes();
+        for (int i = 0; i < memes.length; i++) {
+            putStaged(memes[i], prefixes);
+        }
+        return true;
+    }
+
+    /**
+     * Activates a staged meme.
+     * <p>
+     * This method is intended to be called from the governance contract.
+     *
+     * @return the activated meme, or null if no meme is staged for this id.
+     */
+    public static Meme activateMeme(String memeId) {
+        if (Runtime.getCallingScriptHash() != getOwner()) {
+            return null;
+        }
+        MemeRecord record = getStagedRecord(memeId);
+        if (record == null) {
+            return null;
+        }
+        stagedMap.delete(toIdKey(memeId));
+        activate(record);
+        return toMeme(record, getUrlPrefixes());
+    }
+
+    /**
+     * Deletes the staged memes with the given ids. Ids without a staged meme are ignored.
+     * <p>
+     * This method is intended to be called from the governance contract.
+     */
+    public static boolean dropStagedMemes(String[] memeIds) {
+        if (Runtime.getCallingScriptHash() != getOwner()) {
+            return false;
+        }
+        for (int i = 0; i < memeIds.length; i++) {
+            MemeRecord record = getStagedRecord(memeIds[i]);
+            if (record != null) {
+                stagedMap.delete(toIdKey(memeIds[i]));
+                deleteImageIndex(record.meme);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the staged memes with the given ids. Contains null for ids without a staged meme.
+     */
+    @Safe
+    public static Meme[] getStagedMemes(String[] memeIds) {
+        List<String> prefixes = getUrlPrefixes();
+        Meme[] memes = new Meme[memeIds.length];
+        for (int i = 0; i < memeIds.length; i++) {
+            MemeRecord record = getStagedRecord(memeIds[i]);
+            if (record != null) {
+                memes[i] = toMeme(record, prefixes);
+            }
+        }
+        return memes;
+    }
+
+    /**
+     * Encodes a sequence number as fixed-size big-endian key, so that the storage order of the
+     * keys matches their numeric order.
+     */
+    private static byte[] toIndexKey(int seq) {
+        byte[] key = new byte[4];
+        key[0] = (byte) ((seq >> 24) & 0xff);
+        key[1] = (byte) ((seq >> 16) & 0xff);
+        key[2] = (byte) ((seq >> 8) & 0xff);
+        key[3] = (byte) (seq & 0xff);
+        return key;
+    }
+
+    /**
+     * Creates the key of a meme in a search index from the leading bytes of the (folded) id and the
+     * hash of the id, which keeps keys of ids with the same leading bytes apart.
+     */
+    private static byte[] createSearchKey(byte[] id, String memeId) {
+        return concat(truncate(id), toIdKey(memeId));
+    }
+
+    private static byte[] truncate(byte[] id) {
+        if (id.length <= MAX_INDEXED_ID_LENGTH) {
+            return id;
+        }
+        byte[] truncated = new byte[MAX_INDEXED_ID_LENGTH];
+        for (int i = 0; i < MAX_INDEXED_ID_LENGTH; i++) {
+            truncated[i] = id[i];
+        }
+        return truncated;
+    }
+
+    /**
+     * Converts the ASCII letters of an id to lower case.
+     */
+    private static byte[] fold(byte[] id) {
+        byte[] folded = new byte[id.length];
+        for (int i = 0; i < id.length; i++) {
+            byte b = id[i];
+            if (b >= 0x41 && b <= 0x5a) {
+                b = (byte) (b + 0x20);
+            }
+            folded[i] = b;
+        }
+        return folded;
+    }
+
+    private static boolean startsWith(byte[] value, byte[] prefix) {
+        if (value.length < prefix.length) {
             return false;
         }
-        descriptionMap.put(memeId, description);
-        urlMap.put(memeId, url);
-        imgHashMap.put(memeId, imageHash);
+        for (int i = 0; i < prefix.length; i++) {
+            if (value[i] != prefix[i]) {
+                return false;
+            }
+        }
         return true;
     }
 
+    /**
+     * Checks whether a key comes after the other key in the storage order, i.e., compares them
+     * byte by byte.
+     */
+    private static boolean isAfter(byte[] key, byte[] other) {
+        int length = key.length;
+        if (other.length < length) {
+            length = other.length;
+        }
+        for (int i = 0; i < length; i++) {
+            int a = key[i] & 0xff;
+            int b = other[i] & 0xff;
+            if (a != b) {
+                return a > b;
+            }
+        }
+        return key.length > other.length;
+    }
+
+    /**
+     * Derives the storage key of a meme id. The key has a fixed size, independent of the length of
+     * the id. The id itself is kept in the record.
+     */
+    private static ByteString toIdKey(String memeId) {
+        return CryptoLib.ripemd160(new ByteString(memeId));
+    }
+
     /**
      * Removes a meme.
      */
@@ -87,24 +487,509 @@ public class MemeContract {
         if (Runtime.getCallingScriptHash() != getOwner()) {
             return false;
         }
-        descriptionMap.delete(memeId);
-        urlMap.delete(memeId);
-        imgHashMap.delete(memeId);
+        MemeRecord record = getMemeRecord(memeId);
+        if (record != null) {
+            deleteMeme(record);
+        }
         return true;
     }
 
+    private static void deleteMeme(MemeRecord record) {
+        unlist(record);
+        deleteImageIndex(record.meme);
+        appendChange(CHANGE_REMOVE, record.meme.id);
+    }
+
+    /**
+     * Deletes the record of an active meme and its entries in the listing and search indexes.
+     */
+    private static void unlist(MemeRecord record) {
+        memeIndexMap.delete(toIndexKey(record.seq));
+        memeMap.delete(toIdKey(record.meme.id));
+        byte[] id = new ByteString(record.meme.id).toByteArray();
+        idIndexMap.delete(createSearchKey(id, record.meme.id));
+        foldedIdIndexMap.delete(createSearchKey(fold(id), record.meme.id));
+        contractMap.put(MEME_COUNT_KEY, contractMap.getInteger(MEME_COUNT_KEY) - 1);
+    }
+
+    /**
+     * Activates staged memes and removes memes at once. Either all creations are applied or none.
+     * <p>
+     * Like {@link MemeContract#removeMeme(String)}, removals of memes that do not exist anymore
+     * are ignored, e.g., if the meme was archived after the bundle was proposed. Otherwise, such a
+     * bundle could never be executed.
+     * <p>
+     * This method is intended to be called from the governance contract.
+     *
+     * @param creations the ids of the staged memes to activate.
+     * @param removals the ids of the memes to remove.
+     * @return the activated memes and the ids of the removed memes, or null if the changes were
+     *         not applied.
+     */
+    public static AppliedBundle applyBundle(String[] creations, String[] removals) {
+        if (Runtime.getCallingScriptHash() != getOwner()) {
+            return null;
+        }
+        MemeRecord[] staged = new MemeRecord[creations.length];
+        for (int i = 0; i < creations.length; i++) {
+            staged[i] = getStagedRecord(creations[i]);
+            if (staged[i] == null) {
+                return null;
+            }
+        }
+        List<String> prefixes = getUrlPrefixes();
+        Meme[] created = new Meme[creations.length];
+        for (int i = 0; i < creations.length; i++) {
+            stagedMap.delete(toIdKey(creations[i]));
+            activate(staged[i]);
+            created[i] = toMeme(staged[i], prefixes);
+        }
+        List<String> removed = new List<>();
+        for (int i = 0; i < removals.length; i++) {
+            MemeRecord record = getMemeRecord(removals[i]);
+            if (record != null) {
+                deleteMeme(record);
+                removed.add(removals[i]);
+            }
+        }
+        return new AppliedBundle(created, removed);
+    }
+
     /**
      * Gets the properties of a meme.
      */
     @Safe
     public static Meme getMeme(String memeId) throws Exception {
-        if (descriptionMap.get(memeId) == null) {
+        MemeRecord record = getMemeRecord(memeId);
+        if (record == null) {
             throw new Exception("No meme found for this id.");
         }
-        String desc = descriptionMap.get(memeId).toString();
-        String url = urlMap.get(memeId).toString();
-        ByteString imgHash = imgHashMap.get(memeId);
-        return new Meme(memeId, desc, url, imgHash);
+        return toMeme(record, getUrlPrefixes());
+    }
+
+    /**
+     * Checks whether a meme with the given id exists.
+     */
+    @Safe
+    public static boolean hasMeme(String memeId) {
+        return memeMap.get(toIdKey(memeId)) != null;
+    }
+
+    /**
+     * Checks for each of the given ids whether a meme with that id exists.
+     */
+    @Safe
+    public static boolean[] hasMemes(String[] memeIds) {
+        boolean[] exist = new boolean[memeIds.length];
+        for (int i = 0; i < memeIds.length; i++) {
+            exist[i] = memeMap.get(toIdKey(memeIds[i])) != null;
+        }
+        return exist;
+    }
+
+    /**
+     * Finds the meme that uses the image with the given hash. Memes that are staged for a creation
+     * proposal are included, i.e., the returned id may belong to an open proposal.
+     *
+     * @return the meme id, or null if no meme uses this image.
+     */
+    @Safe
+    public static String findMemeByImageHash(ByteString imageHash) {
+        if (imageHash == null || imageHash.length() != IMAGE_HASH_LENGTH) {
+            return null;
+        }
+        ByteString memeId = imageIndexMap.get(imageHash);
+        if (memeId == null) {
+            return null;
+        }
+        return memeId.toString();
+    }
+
+    /**
+     * Gets the memes whose id starts with the given prefix, ordered by their id.
+     * <p>
+     * Only the range of the id index that matches the prefix is iterated, i.e., the cost depends on
+     * the number of matches and not on the number of memes.
+     *
+     * @param prefix the prefix of the meme ids.
+     * @param cursor the cursor returned with the previous page of the same search, or null to
+     *        start at the beginning.
+     * @param limit the maximum number of memes to return. Is capped at
+     *        {@link MemeContract#MAX_GET_MEMES}.
+     * @return the page of memes with the cursor to pass to get the next page.
+     */
+    @Safe
+    public static MemeSearchPage searchMemes(String prefix, ByteString cursor, int limit) {
+        return search(ID_INDEX_PREFIX, new ByteString(prefix).toByteArray(), false, cursor,
+                limit);
+    }
+
+    /**
+     * Gets the memes whose id starts with the given prefix, ignoring the case of ASCII letters.
+     * Works like {@link MemeContract#searchMemes(String, ByteString, int)} on an index of the
+     * case-folded ids.
+     */
+    @Safe
+    public static MemeSearchPage searchMemesIgnoreCase(String prefix, ByteString cursor,
+            int limit) {
+        return search(FOLDED_ID_INDEX_PREFIX, fold(new ByteString(prefix).toByteArray()), true,
+                cursor, limit);
+    }
+
+    private static MemeSearchPage search(byte indexPrefix, byte[] prefix, boolean folded,
+            ByteString cursor, int limit) {
+        if (limit > MAX_GET_MEMES) {
+            limit = MAX_GET_MEMES;
+        }
+        if (limit < 1) {
+            limit = 1;
+        }
+        List<String> prefixes = getUrlPrefixes();
+        List<Meme> memes = new List<>();
+        Iterator<Iterator.Struct<ByteString, ByteString>> iterator = Storage.find(ctx,
+                concat(toByteArray(indexPrefix), truncate(prefix)), FindOptions.RemovePrefix);
+        boolean pastCursor = cursor == null;
+        boolean hasMore = false;
+        while (iterator.next()) {
+            Iterator.Struct<ByteString, ByteString> pair = iterator.get();
+            if (!pastCursor) {
+                pastCursor = isAfter(pair.key.toByteArray(), cursor.toByteArray());
+                if (!pastCursor) {
+                    continue;
+                }
+            }
+            // The key continues with the hash of the id after the leading bytes of the id. Thus, a
+            // key can match the prefix with hash bytes if its id is shorter than the prefix, or
+            // only match with the leading bytes if the prefix is longer than those. The full id,
+            // which is the value of the entry, decides.
+            byte[] id = pair.value.toByteArray();
+            if (folded) {
+                id = fold(id);
+            }
+            if (!startsWith(id, prefix)) {
+                continue;
+            }
+            if (memes.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            memes.add(toMeme(getMemeRecord(pair.value.toString()), prefixes));
+            cursor = pair.key;
+        }
+        return new MemeSearchPage(memes, cursor, hasMore);
+    }
+
+    /**
+     * Adds a url prefix to the dictionary. Memes whose url starts with a prefix of the dictionary
+     * only store the rest of the url. Prefixes cannot be removed, because stored memes refer to
+     * them.
+     * <p>
+     * This method is intended to be called from the governance contract.
+     *
+     * @return the id of the prefix, or 0 if the prefix was not added because it is empty or the
+     *         dictionary is full.
+     */
+    public static int addUrlPrefix(String prefix) {
+        if (Runtime.getCallingScriptHash() != getOwner()) {
+            return 0;
+        }
+        List<String> prefixes = getUrlPrefixes();
+        if (prefix == null || prefix.length() == 0 || prefixes.size() >= MAX_URL_PREFIXES) {
+            return 0;
+        }
+        prefixes.add(prefix);
+        contractMap.put(URL_PREFIXES_KEY, StdLib.serialize(prefixes));
+        return prefixes.size();
+    }
+
+    /**
+     * Gets the url prefixes of the dictionary. The prefix with id {@code i} is at index
+     * {@code i - 1}.
+     */
+    @Safe
+    public static List<String> getUrlPrefixes() {
+        ByteString prefixes = contractMap.get(URL_PREFIXES_KEY);
+        if (prefixes == null) {
+            return new List<>();
+        }
+        return (List<String>) StdLib.deserialize(prefixes);
+    }
+
+    /**
+     * Moves memes out of the contract storage into the archive. Only a Merkle root over all
+     * archived memes is kept, and archived memes can be proven with
+     * {@link MemeContract#verifyMeme(Meme, ByteString[], int)}. The memes are appended to the
+     * archive in the given order.
+     * <p>
+     * The root is updated from the leaves of the given memes and the stored roots of the perfect
+     * subtrees of the archive, i.e., with O(log n) hashes per meme and without the memes that
+     * were archived before.
+     * <p>
+     * The image hashes of archived memes stay indexed, so that their images cannot be proposed
+     * again, and their ids stay reserved.
+     * <p>
+     * This method is intended to be called from the governance contract.
+     *
+     * @param memeIds the ids of the memes to archive.
+     * @return the archive index of each meme, or -1 for ids without a meme. Null if the caller is
+     *         not the owner.
+     */
+    public static int[] archiveMemes(String[] memeIds) {
+        if (Runtime.getCallingScriptHash() != getOwner()) {
+            return null;
+        }
+        int size = contractMap.getInteger(ARCHIVE_SIZE_KEY);
+        ByteString[] peaks = getArchivePeaks();
+        List<String> prefixes = getUrlPrefixes();
+        int[] indexes = new int[memeIds.length];
+        for (int i = 0; i < memeIds.length; i++) {
+            // Ids without a meme, e.g., because it was removed after the archival was proposed,
+            // are skipped. Repeated ids are skipped as well, because the meme is gone by then.
+            MemeRecord record = getMemeRecord(memeIds[i]);
+            if (record == null) {
+                indexes[i] = -1;
+                continue;
+            }
+            // Merge the new leaf with the roots of the perfect subtrees to its left that have the
+            // same height. These are given by the set bits of the archive size.
+            ByteString node = hashLeaf(toMeme(record, prefixes));
+            int height = 0;
+            int n = size;
+            while (n % 2 == 1) {
+                node = hashNode(peaks[height], node);
+                peaks[height] = null;
+                height++;
+                n = n / 2;
+            }
+            peaks[height] = node;
+            indexes[i] = size;
+            size++;
+
+            unlist(record);
+            archivedMap.put(toIdKey(memeIds[i]), 1);
+            appendChange(CHANGE_ARCHIVE, memeIds[i]);
+        }
+        if (size > 0) {
+            contractMap.put(ARCHIVE_SIZE_KEY, size);
+            contractMap.put(ARCHIVE_PEAKS_KEY, StdLib.serialize(peaks));
+            contractMap.put(ARCHIVE_ROOT_KEY, foldPeaks(peaks));
+        }
+        return indexes;
+    }
+
+    private static ByteString[] getArchivePeaks() {
+        ByteString peaks = contractMap.get(ARCHIVE_PEAKS_KEY);
+        if (peaks == null) {
+            return new ByteString[MAX_ARCHIVE_HEIGHT];
+        }
+        return (ByteString[]) StdLib.deserialize(peaks);
+    }
+
+    /**
+     * Computes the root of the archive's Merkle tree from the roots of its perfect subtrees. A
+     * node without a sibling is moved up unchanged, so each subtree is only hashed with the
+     * combined subtrees to its right, i.e., the lower ones.
+     */
+    private static ByteString foldPeaks(ByteString[] peaks) {
+        ByteString root = null;
+        for (int height = 0; height < MAX_ARCHIVE_HEIGHT; height++) {
+            if (peaks[height] != null) {
+                if (root == null) {
+                    root = peaks[height];
+                } else {
+                    root = hashNode(peaks[height], root);
+                }
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Checks whether the meme with the given id was archived.
+     */
+    @Safe
+    public static boolean isArchived(String memeId) {
+        return archivedMap.get(toIdKey(memeId)) != null;
+    }
+
+    /**
+     * Gets the Merkle root over all archived memes, or null if no meme was archived.
+     */
+    @Safe
+    public static ByteString getArchiveRoot() {
+        return contractMap.get(ARCHIVE_ROOT_KEY);
+    }
+
+    /**
+     * Gets the number of archived memes.
+     */
+    @Safe
+    public static int getArchiveSize() {
+        return contractMap.getInteger(ARCHIVE_SIZE_KEY);
+    }
+
+    /**
+     * Verifies that a meme is part of the archive.
+     * <p>
+     * The leaves of the archive's Merkle tree are {@code sha256(0x00 || sha256(id) ||
+     * sha256(description) || sha256(url) || imageHash)} in archive order, and inner nodes are
+     * {@code sha256(0x01 || left || right)}. A node without a sibling is moved up a level
+     * unchanged.
+     *
+     * @param meme the archived meme with its full url.
+     * @param proof the sibling hashes from the leaf up to the root. Levels on which the node has no
+     *        sibling are skipped.
+     * @param index the archive index of the meme.
+     * @return true if the meme is in the archive at the given index, false otherwise.
+     */
+    @Safe
+    public static boolean verifyMeme(Meme meme, ByteString[] proof, int index) {
+        int size = contractMap.getInteger(ARCHIVE_SIZE_KEY);
+        if (index < 0 || index >= size || !isValid(meme)) {
+            return false;
+        }
+        ByteString hash = hashLeaf(meme);
+        int p = 0;
+        while (size > 1) {
+            if (index % 2 == 1 || index + 1 < size) {
+                if (p == proof.length) {
+                    return false;
+                }
+                if (index % 2 == 1) {
+                    hash = hashNode(proof[p], hash);
+                } else {
+                    hash = hashNode(hash, proof[p]);
+                }
+                p++;
+            }
+            index = index / 2;
+            size = (size + 1) / 2;
+        }
+        return p == proof.length && hash.equals(contractMap.get(ARCHIVE_ROOT_KEY));
+    }
+
+    private static ByteString hashLeaf(Meme meme) {
+        return CryptoLib.sha256(new ByteString(concat(concat(concat(concat(
+                LEAF_HASH_PREFIX, CryptoLib.sha256(new ByteString(meme.id))),
+                CryptoLib.sha256(new ByteString(meme.description))),
+                CryptoLib.sha256(new ByteString(meme.url))), meme.imageHash)));
+    }
+
+    private static ByteString hashNode(ByteString left, ByteString right) {
+        return CryptoLib.sha256(new ByteString(concat(concat(NODE_HASH_PREFIX, left), right)));
+    }
+
+    /**
+     * Gets the number of memes. Staged memes are not counted.
+     */
+    @Safe
+    public static int getMemeCount() {
+        return contractMap.getInteger(MEME_COUNT_KEY);
+    }
+
+    /**
+     * Gets the catalog version. It is the sequence number of the most recent change and increases
+     * with every creation and removal of a meme.
+     */
+    @Safe
+    public static int getCatalogVersion() {
+        return contractMap.getInteger(CHANGE_SEQ_KEY);
+    }
+
+    /**
+     * Gets the version up to which the change log was compacted. Changes up to this version are
+     * not available through {@link MemeContract#getChangesSince(int, int)} anymore.
+     */
+    @Safe
+    public static int getCompactedVersion() {
+        return contractMap.getInteger(COMPACTED_SEQ_KEY);
+    }
+
+    /**
+     * Gets the number of change log entries that are kept. 0 means that all entries are kept.
+     */
+    @Safe
+    public static int getChangeRetention() {
+        return contractMap.getInteger(CHANGE_RETENTION_KEY);
+    }
+
+    /**
+     * Sets the number of change log entries that are kept. Older entries are compacted gradually
+     * with the following changes. 0 keeps all entries.
+     * <p>
+     * This method is intended to be called from the governance contract.
+     */
+    public static boolean setChangeRetention(int retention) {
+        if (Runtime.getCallingScriptHash() != getOwner()) {
+            return false;
+        }
+        if (retention < 0) {
+            return false;
+        }
+        contractMap.put(CHANGE_RETENTION_KEY, retention);
+        return true;
+    }
+
+    /**
+     * Gets the changes of the catalog after the given version, in the order they were applied.
+     * <p>
+     * The entries following the version are looked up directly, so that the cost of a sync depends
+     * on the number of changes and not on the size of the catalog.
+     *
+     * @param seq the catalog version the caller is synced to, or 0 to start at the beginning.
+     * @param limit the maximum number of changes to return. Is capped at
+     *        {@link MemeContract#MAX_GET_MEMES}.
+     * @return the page of changes with the version to pass to get the next page. If changes after
+     *         the given version were already compacted, no changes are returned and the page is
+     *         marked as compacted. The caller then has to fetch the whole catalog again.
+     */
+    @Safe
+    public static ChangePage getChangesSince(int seq, int limit) {
+        if (limit > MAX_GET_MEMES) {
+            limit = MAX_GET_MEMES;
+        }
+        // There are no versions before 0, and a negative version would yield a negative key.
+        if (seq < 0) {
+            seq = 0;
+        }
+        List<Change> changes = new List<>();
+        int version = contractMap.getInteger(CHANGE_SEQ_KEY);
+        if (seq < contractMap.getInteger(COMPACTED_SEQ_KEY)) {
+            return new ChangePage(changes, seq, false, true);
+        }
+        int endSeq = seq + limit;
+        if (endSeq > version) {
+            endSeq = version;
+        }
+        while (seq < endSeq) {
+            seq++;
+            changes.add((Change) StdLib.deserialize(changeLogMap.get(toIndexKey(seq))));
+        }
+        return new ChangePage(changes, seq, seq < version, false);
+    }
+
+    /**
+     * Gets the memes with the given ids in the order of the ids.
+     *
+     * @param memeIds the ids of the memes. At most {@link MemeContract#MAX_GET_MEMES} ids are
+     *        allowed.
+     * @return the memes. Contains null for ids without a meme.
+     * @throws Exception if more than {@link MemeContract#MAX_GET_MEMES} ids are passed.
+     */
+    @Safe
+    public static Meme[] getMemesByIds(String[] memeIds) throws Exception {
+        if (memeIds.length > MAX_GET_MEMES) {
+            throw new Exception("Too many meme ids.");
+        }
+        List<String> prefixes = getUrlPrefixes();
+        Meme[] memes = new Meme[memeIds.length];
+        for (int i = 0; i < memeIds.length; i++) {
+            MemeRecord record = getMemeRecord(memeIds[i]);
+            if (record != null) {
+                memes[i] = toMeme(record, prefixes);
+            }
+        }
+        return memes;
     }
 
     /**
@@ -117,26 +1002,127 @@ public class MemeContract {
     @Safe
     public static List<Meme> getMemes(int startingIndex) {
         int finalIndex = startingIndex + MAX_GET_MEMES;
+        List<String> prefixes = getUrlPrefixes();
         List<Meme> memes = new List<>();
-        Iterator<Iterator.Struct<ByteString, ByteString>> iterator = 
-            Storage.find(ctx, toByteArray(DESC_MAP_PREFIX), FindOptions.RemovePrefix);
+        Iterator<MemeRecord> iterator = Storage.find(ctx, toByteArray(MEME_MAP_PREFIX),
+                (byte) (FindOptions.ValuesOnly | FindOptions.DeserializeValues));
         int i = 0;
         while (iterator.next()) {
-            if (i < startingIndex) {
-                continue;
-            }
             if (i == finalIndex) {
                 break;
             }
-            Iterator.Struct<ByteString, ByteString> pair = iterator.get();
-            String memeId = pair.key.toString();
-            String desc = pair.value.toString();
-            String url = urlMap.get(memeId).toString();
-            ByteString imgHash = imgHashMap.get(memeId);
-            memes.add(new Meme(memeId, desc, url, imgHash));
+            if (i >= startingIndex) {
+                memes.add(toMeme(iterator.get(), prefixes));
+            }
             i++;
         }
         return memes;
     }
 
+    /**
+     * Gets the memes created after the meme with the given cursor, in creation order.
+     * <p>
+     * Instead of iterating from the start, this method looks up the sequence numbers following the
+     * cursor directly, so that each page costs the same regardless of its position. At most
+     * {@code limit} sequence numbers are looked up per call. Because removed memes leave gaps, a
+     * page may contain less than {@code limit} memes even if more memes follow.
+     *
+     * @param cursor The cursor returned with the previous page, or 0 to start at the beginning.
+     * @param limit  The maximum number of memes to return. Is capped at
+     *               {@link MemeContract#MAX_GET_MEMES}.
+     * @return The page of memes with the cursor to pass to get the next page.
+     */
+    @Safe
+    public static MemePage getMemesAfter(int cursor, int limit) {
+        if (limit > MAX_GET_MEMES) {
+            limit = MAX_GET_MEMES;
+        }
+        int lastSeq = contractMap.getInteger(MEME_SEQ_KEY);
+        int endSeq = cursor + limit;
+        if (endSeq > lastSeq) {
+            endSeq = lastSeq;
+        }
+        List<String> prefixes = getUrlPrefixes();
+        List<Meme> memes = new List<>();
+        int seq = cursor;
+        while (seq < endSeq) {
+            seq++;
+            ByteString memeId = memeIndexMap.get(toIndexKey(seq));
+            if (memeId != null) {
+                memes.add(toMeme(getMemeRecord(memeId.toString()), prefixes));
+            }
+        }
+        return new MemePage(memes, seq, seq < lastSeq);
+    }
+
+    /**
+     * Gets the ids of the memes created after the meme with the given cursor, in creation order.
+     * Works like {@link MemeContract#getMemesAfter(int, int)}, but only reads the sequence number
+     * index and not the memes themselves.
+     *
+     * @param cursor The cursor returned with the previous page, or 0 to start at the beginning.
+     * @param limit  The maximum number of meme ids to return. Is capped at
+     *               {@link MemeContract#MAX_GET_MEMES}.
+     * @return The page of meme ids with the cursor to pass to get the next page.
+     */
+    @Safe
+    public static MemeIdPage getMemeIdsAfter(int cursor, int limit) {
+        if (limit > MAX_GET_MEMES) {
+            limit = MAX_GET_MEMES;
+        }
+        int lastSeq = contractMap.getInteger(MEME_SEQ_KEY);
+        int endSeq = cursor + limit;
+        if (endSeq > lastSeq) {
+            endSeq = lastSeq;
+        }
+        List<String> memeIds = new List<>();
+        int seq = cursor;
+        while (seq < endSeq) {
+            seq++;
+            ByteString memeId = memeIndexMap.get(toIndexKey(seq));
+            if (memeId != null) {
+                memeIds.add(memeId.toString());
+            }
+        }
+        return new MemeIdPage(memeIds, seq, seq < lastSeq);
+    }
+
+    /**
+     * Gets the memes created before the meme with the given cursor, newest first.
+     * <p>
+     * Walks the sequence numbers down from the cursor, so that each page costs the same regardless
+     * of the number of memes. At most {@code limit} sequence numbers are looked up per call.
+     * Because removed memes leave gaps, a page may contain less than {@code limit} memes even if
+     * more memes follow.
+     *
+     * @param cursor The cursor returned with the previous page, or 0 to start at the newest meme.
+     * @param limit  The maximum number of memes to return. Is capped at
+     *               {@link MemeContract#MAX_GET_MEMES}.
+     * @return The page of memes with the cursor to pass to get the next page.
+     */
+    @Safe
+    public static MemePage getLatestMemes(int cursor, int limit) {
+        if (limit > MAX_GET_MEMES) {
+            limit = MAX_GET_MEMES;
+        }
+        if (cursor == 0) {
+            cursor = contractMap.getInteger(MEME_SEQ_KEY) + 1;
+        }
+        int endSeq = cursor - limit;
+        if (endSeq < 1) {
+            endSeq = 1;
+        }
+        List<String> prefixes = getUrlPrefixes();
+        List<Meme> memes = new List<>();
+        int seq = cursor;
+        while (seq > endSeq) {
+            seq--;
+            ByteString memeId = memeIndexMap.get(toIndexKey(seq));
+            if (memeId != null) {
+                memes.add(toMeme(getMemeRecord(memeId.toString()), prefixes));
+            }
+        }
+        return new MemePage(memes, seq, seq > 1);
+    }
+
 }
@@ -0,0 +1,16 @@
+package com.axlabs;
+
+import io.neow3j.devpack.List;
+
+public class MemeIdPage {
+    public List<String> memeIds;
+    public int cursor;
+    public boolean hasMore;
+
+    public MemeIdPage(List<String> memeIds, int cursor, boolean hasMore) {
+        this.memeIds = memeIds;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+}
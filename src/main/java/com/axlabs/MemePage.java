@@ -0,0 +1,16 @@
+package com.axlabs;
+
+import io.neow3j.devpack.List;
+
+public class MemePage {
+    public List<Meme> memes;
+    public int cursor;
+    public boolean hasMore;
+
+    public MemePage(List<Meme> memes, int cursor, boolean hasMore) {
+        this.memes = memes;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.axlabs;
+
+public class MemeRecord {
+    public Meme meme;
+    public int seq;
+    // The id of the url prefix that was cut off the url of the meme, or 0 if the full url is
+    // stored.
+    public int urlPrefix;
+
+    public MemeRecord(Meme meme, int seq) {
+        this.meme = meme;
+        this.seq = seq;
+        this.urlPrefix = 0;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.axlabs;
+
+import io.neow3j.devpack.ByteString;
+import io.neow3j.devpack.List;
+
+public class MemeSearchPage {
+    public List<Meme> memes;
+    public ByteString cursor;
+    public boolean hasMore;
+
+    public MemeSearchPage(List<Meme> memes, ByteString cursor, boolean hasMore) {
+        this.memes = memes;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+}
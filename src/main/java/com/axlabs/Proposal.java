@@ -7,15 +7,17 @@ public class Proposal {
     public int finalizationBlock;
     public int votesInFavor;
     public int votesAgainst;
+    public int type;
 
     public Proposal(Meme meme, boolean create, boolean voteInProgress, int finalizationBlock,
-            int votesInFavor, int votesAgainst) {
+            int votesInFavor, int votesAgainst, int type) {
         this.meme = meme;
         this.create = create;
         this.voteInProgress = voteInProgress;
         this.finalizationBlock = finalizationBlock;
         this.votesInFavor = votesInFavor;
         this.votesAgainst = votesAgainst;
+        this.type = type;
     }
 
 }
@@ -0,0 +1,21 @@
+package com.axlabs;
+
+import io.neow3j.devpack.ByteString;
+
+public class ProposalCounts {
+    public int total;
+    public int accepted;
+    public int rejected;
+    public ByteString cursor;
+    public boolean hasMore;
+
+    public ProposalCounts(int total, int accepted, int rejected, ByteString cursor,
+            boolean hasMore) {
+        this.total = total;
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.axlabs;
+
+import io.neow3j.devpack.List;
+
+public class ProposalPage {
+    public List<Proposal> proposals;
+    public int cursor;
+    public boolean hasMore;
+
+    public ProposalPage(List<Proposal> proposals, int cursor, boolean hasMore) {
+        this.proposals = proposals;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+}
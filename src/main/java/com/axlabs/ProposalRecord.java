@@ -0,0 +1,38 @@
+package com.axlabs;
+
+import io.neow3j.devpack.Hash160;
+
+public class ProposalRecord {
+    // Proposals are stored under the hash of their id, so the id itself is kept here.
+    public String id;
+    public int type;
+    public int finalizationBlock;
+    public int votesInFavor;
+    public int votesAgainst;
+    public int seq;
+    // The payload of creations is staged in the meme contract. Bundles only keep the ids.
+    public String[] creations;
+    // The ids of the memes that a bundle removes or that an archival proposal archives.
+    public String[] removals;
+    // Snapshot of the meme that a removal proposal removes, so that listing proposals does not need
+    // to call the meme contract.
+    public Meme meme;
+    // The account that created the proposal and the GAS it locked as deposit.
+    public Hash160 proposer;
+    public int deposit;
+
+    public ProposalRecord(String id, int type, int finalizationBlock) {
+        this.id = id;
+        this.type = type;
+        this.finalizationBlock = finalizationBlock;
+        this.votesInFavor = 0;
+        this.votesAgainst = 0;
+        this.seq = 0;
+        this.creations = null;
+        this.removals = null;
+        this.meme = null;
+        this.proposer = null;
+        this.deposit = 0;
+    }
+
+}
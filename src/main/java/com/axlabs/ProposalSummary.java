@@ -0,0 +1,21 @@
+package com.axlabs;
+
+public class ProposalSummary {
+    public String memeId;
+    public int type;
+    public boolean voteInProgress;
+    public int finalizationBlock;
+    public int votesInFavor;
+    public int votesAgainst;
+
+    public ProposalSummary(String memeId, int type, boolean voteInProgress, int finalizationBlock,
+            int votesInFavor, int votesAgainst) {
+        this.memeId = memeId;
+        this.type = type;
+        this.voteInProgress = voteInProgress;
+        this.finalizationBlock = finalizationBlock;
+        this.votesInFavor = votesInFavor;
+        this.votesAgainst = votesAgainst;
+    }
+
+}
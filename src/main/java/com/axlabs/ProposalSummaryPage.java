@@ -0,0 +1,16 @@
+package com.axlabs;
+
+import io.neow3j.devpack.List;
+
+public class ProposalSummaryPage {
+    public List<ProposalSummary> proposals;
+    public int cursor;
+    public boolean hasMore;
+
+    public ProposalSummaryPage(List<ProposalSummary> proposals, int cursor, boolean hasMore) {
+        this.proposals = proposals;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.axlabs;
+
+import io.neow3j.devpack.ByteString;
+import io.neow3j.devpack.ECPoint;
+
+public class SignedVote {
+    public ECPoint voter;
+    public String memeId;
+    public boolean inFavor;
+    public int nonce;
+    public ByteString signature;
+
+    public SignedVote(ECPoint voter, String memeId, boolean inFavor, int nonce,
+            ByteString signature) {
+        this.voter = voter;
+        this.memeId = memeId;
+        this.inFavor = inFavor;
+        this.nonce = nonce;
+        this.signature = signature;
+    }
+
+}
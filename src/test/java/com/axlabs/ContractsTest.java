@@ -3,6 +3,7 @@ package com.axlabs;
 import io.neow3j.contract.GasToken;
 import io.neow3j.contract.SmartContract;
 import io.neow3j.crypto.ECKeyPair;
+import io.neow3j.crypto.Hash;
 import io.neow3j.protocol.Neow3j;
 import io.neow3j.protocol.core.response.NeoSendRawTransaction;
 import io.neow3j.protocol.core.stackitem.StackItem;
@@ -17,6 +18,7 @@ import io.neow3j.transaction.exceptions.TransactionConfigurationException;
 import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash160;
 import io.neow3j.types.Hash256;
+import io.neow3j.types.StackItemType;
 import io.neow3j.utils.Numeric;
 import io.neow3j.wallet.Account;
 import org.junit.jupiter.api.BeforeAll;
@@ -26,9 +28,12 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import static io.neow3j.types.ContractParameter.array;
 import static io.neow3j.types.ContractParameter.bool;
 import static io.neow3j.types.ContractParameter.byteArray;
 import static io.neow3j.types.ContractParameter.hash160;
@@ -40,6 +45,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -70,18 +77,58 @@ public class ContractsTest {
 
     // Governance methods
     private static final String vote = "vote";
+    private static final String voteMany = "voteMany";
     private static final String proposeNewMeme = "proposeNewMeme";
     private static final String proposeRemoval = "proposeRemoval";
     private static final String execute = "execute";
+    private static final String executeMany = "executeMany";
+    private static final String getDueProposals = "getDueProposals";
+    private static final String executeDue = "executeDue";
+    private static final String setFastTrack = "setFastTrack";
+    private static final String proposeBundle = "proposeBundle";
+    private static final String getVoteNonce = "getVoteNonce";
+    private static final String cleanUpVoters = "cleanUpVoters";
     private static final String getVotingTime = "getVotingTime";
     private static final String getMinVotesInFavor = "getMinVotesInFavor";
     private static final String getMemeContract = "getMemeContract";
     private static final String getProposal = "getProposal";
+    private static final String getProposalsByIds = "getProposalsByIds";
+    private static final String getProposalCount = "getProposalCount";
+    private static final String getProposalCounts = "getProposalCounts";
+    private static final String getGovernanceOwner = "getOwner";
+    private static final String canVote = "canVote";
+    private static final String canExecute = "canExecute";
+    private static final String canPropose = "canPropose";
+    private static final String hasVoted = "hasVoted";
+    private static final String getProposalSummariesAfter = "getProposalSummariesAfter";
+    private static final String getLatestProposals = "getLatestProposals";
+    private static final String setProposalDeposit = "setProposalDeposit";
+    private static final String getDeposit = "getDeposit";
+    private static final String getForfeitedDeposits = "getForfeitedDeposits";
+    private static final String setMaxOpenProposals = "setMaxOpenProposals";
+    private static final String getOpenProposals = "getOpenProposals";
+    private static final String addUrlPrefix = "addUrlPrefix";
+    private static final String getArchival = "getArchival";
+    private static final String setChangeRetention = "setChangeRetention";
 
     // Meme contract methods
     private static final String getMeme = "getMeme";
     private static final String getOwner = "getOwner";
     private static final String getMemes = "getMemes";
+    private static final String hasMeme = "hasMeme";
+    private static final String getMemesAfter = "getMemesAfter";
+    private static final String getMemesByIds = "getMemesByIds";
+    private static final String getCatalogVersion = "getCatalogVersion";
+    private static final String getChangesSince = "getChangesSince";
+    private static final String getCompactedVersion = "getCompactedVersion";
+    private static final String getMemeCount = "getMemeCount";
+    private static final String findMemeByImageHash = "findMemeByImageHash";
+    private static final String searchMemes = "searchMemes";
+    private static final String searchMemesIgnoreCase = "searchMemesIgnoreCase";
+    private static final String getLatestMemes = "getLatestMemes";
+    private static final String isArchived = "isArchived";
+    private static final String getArchiveRoot = "getArchiveRoot";
+    private static final String verifyMeme = "verifyMeme";
 
     private static final BigInteger votingTime = BigInteger.TEN;
     private static final BigInteger minVotesInFavor = new BigInteger("3");
@@ -126,6 +173,12 @@ public class ContractsTest {
         assertThat(linkedMemeContract, is(memeContract.getScriptHash()));
     }
 
+    @Test
+    public void testGetGovernanceOwner() throws IOException {
+        Hash160 owner = governanceContract.callFunctionReturningScriptHash(getGovernanceOwner);
+        assertThat(owner, is(a1.getScriptHash()));
+    }
+
     @Test
     public void testGetVotingTime() throws IOException {
         BigInteger votingTime = governanceContract.callFuncReturningInt(getVotingTime);
@@ -189,6 +242,71 @@ public class ContractsTest {
         assertThat(proposal.votesAgainst, is(BigInteger.ONE));
     }
 
+    @Test
+    public void testVoteMany() throws Throwable {
+        ContractParameter memeId1 = string("voteMany1");
+        ContractParameter memeId2 = string("voteMany2");
+        setupBasicProposal(memeId1, true);
+        setupBasicProposal(memeId2, true);
+
+        ContractParameter memeIds = array(memeId1, memeId2, string("voteManyUnknown"));
+        ContractParameter inFavor = array(bool(true), bool(false), bool(true));
+        List<StackItem> statuses = governanceContract.callInvokeFunction(voteMany,
+                        asList(hash160(a2.getScriptHash()), memeIds, inFavor),
+                        AccountSigner.calledByEntry(a2))
+                .getInvocationResult().getStack().get(0).getList();
+        assertThat(statuses.get(0).getInteger(), is(BigInteger.ZERO));
+        assertThat(statuses.get(1).getInteger(), is(BigInteger.ZERO));
+        assertThat(statuses.get(2).getInteger(), is(BigInteger.ONE));
+
+        Hash256 hash = governanceContract.invokeFunction(voteMany,
+                        hash160(a2.getScriptHash()), memeIds, inFavor)
+                .signers(AccountSigner.calledByEntry(a2))
+                .sign().send().getSendRawTransaction().getHash();
+        waitUntilTransactionIsExecuted(hash, neow3j);
+
+        assertThat(getProposal(memeId1).votesInFavor, is(BigInteger.ONE));
+        assertThat(getProposal(memeId2).votesAgainst, is(BigInteger.ONE));
+    }
+
+    @Test
+    public void testSubmitSignedVotes() throws Throwable {
+        ContractParameter memeId = string("submitSignedVotes");
+        setupBasicProposal(memeId, true);
+        int nonce = governanceContract.callFuncReturningInt(getVoteNonce, memeId).intValue();
+
+        long network = neow3j.getNetworkMagicNumber();
+        Hash160 contractHash = governanceContract.getScriptHash();
+        try (VoteRelayer relayer = new VoteRelayer(governanceContract, a1, 2, 60_000)) {
+            Hash256 hash = relayer.add(VoteRelayer.signVote(a2.getECKeyPair(), network,
+                    contractHash, "submitSignedVotes", true, nonce));
+            assertThat(hash == null, is(true));
+            hash = relayer.add(VoteRelayer.signVote(a3.getECKeyPair(), network,
+                    contractHash, "submitSignedVotes", false, nonce));
+            waitUntilTransactionIsExecuted(hash, neow3j);
+        }
+
+        IntProposal proposal = getProposal(memeId);
+        assertThat(proposal.votesInFavor, is(BigInteger.ONE));
+        assertThat(proposal.votesAgainst, is(BigInteger.ONE));
+
+        // The same signature cannot be used twice.
+        try (VoteRelayer relayer = new VoteRelayer(governanceContract, a1, 1, 60_000)) {
+            Hash256 hash = relayer.add(VoteRelayer.signVote(a2.getECKeyPair(), network,
+                    contractHash, "submitSignedVotes", true, nonce));
+            waitUntilTransactionIsExecuted(hash, neow3j);
+        }
+        assertThat(getProposal(memeId).votesInFavor, is(BigInteger.ONE));
+
+        // A signature for another network is rejected.
+        try (VoteRelayer relayer = new VoteRelayer(governanceContract, a1, 1, 60_000)) {
+            Hash256 hash = relayer.add(VoteRelayer.signVote(a4.getECKeyPair(), network + 1,
+                    contractHash, "submitSignedVotes", true, nonce));
+            waitUntilTransactionIsExecuted(hash, neow3j);
+        }
+        assertThat(getProposal(memeId).votesInFavor, is(BigInteger.ONE));
+    }
+
     @Test
     public void testExecuteCreation() throws Throwable {
         String memeIdString = "executeCreation";
@@ -197,6 +315,8 @@ public class ContractsTest {
         String url = "AxLabsUrlString";
         String imgHash = "ae51b3d6f4876cd78e284c07003c41550741042b23b5bd13973cb16cac197275";
         createProposal(memeId, description, url, imgHash);
+        // The proposed meme is staged but not visible before the proposal is executed.
+        assertFalse(memeContract.callFunctionReturningBool(hasMeme, memeId));
 
         Hash256 voteFor1 = vote(memeId, a1, true);
         Hash256 voteFor2 = vote(memeId, a2, true);
@@ -217,6 +337,282 @@ public class ContractsTest {
         assertThat(meme.get(1).getString(), is(description));
         assertThat(meme.get(2).getString(), is(url));
         assertThat(meme.get(3).getHexString(), is(imgHash));
+        assertTrue(memeContract.callFunctionReturningBool(hasMeme, memeId));
+    }
+
+    @Test
+    public void testExecuteMany() throws Throwable {
+        ContractParameter memeId1 = string("executeMany1");
+        ContractParameter memeId2 = string("executeMany2");
+        setupBasicProposal(memeId1, true);
+        setupBasicProposal(memeId2, true);
+
+        ContractParameter memeIds = array(memeId1, memeId2);
+        ContractParameter inFavor = array(bool(true), bool(true));
+        List<Hash256> votes = new ArrayList<>();
+        for (Account a : asList(a1, a2, a3)) {
+            votes.add(governanceContract.invokeFunction(voteMany,
+                            hash160(a.getScriptHash()), memeIds, inFavor)
+                    .signers(AccountSigner.calledByEntry(a))
+                    .sign().send().getSendRawTransaction().getHash());
+        }
+        for (Hash256 h : votes) {
+            waitUntilTransactionIsExecuted(h, neow3j);
+        }
+
+        ext.fastForward(VOTING_TIME);
+
+        Hash256 exec = governanceContract.invokeFunction(executeMany, memeIds)
+                .signers(AccountSigner.calledByEntry(a4))
+                .sign().send().getSendRawTransaction().getHash();
+        waitUntilTransactionIsExecuted(exec, neow3j);
+
+        assertTrue(memeContract.callFunctionReturningBool(hasMeme, memeId1));
+        assertTrue(memeContract.callFunctionReturningBool(hasMeme, memeId2));
+    }
+
+    @Test
+    public void testCleanUpVoters() throws Throwable {
+        ContractParameter memeId = string("cleanUpVoters");
+        Hash256 hash = setupBasicProposal(memeId, true);
+        waitUntilTransactionIsExecuted(hash, neow3j);
+        BigInteger seq = governanceContract.callFuncReturningInt(getVoteNonce, memeId);
+
+        // The voters of a proposal that is still stored are not removed.
+        String exception = governanceContract.callInvokeFunction(cleanUpVoters,
+                        asList(integer(seq), integer(10)))
+                .getInvocationResult().getException();
+        assertThat(exception, containsString("The voters of active proposals cannot be removed."));
+
+        passProposal(memeId);
+        assertTrue(memeContract.callFunctionReturningBool(hasMeme, memeId));
+
+        // Three voters remain after the execution. The deletion is capped at maxCount.
+        BigInteger deleted = governanceContract.callInvokeFunction(cleanUpVoters,
+                        asList(integer(seq), integer(2)))
+                .getInvocationResult().getStack().get(0).getInteger();
+        assertThat(deleted, is(BigInteger.valueOf(2)));
+
+        hash = governanceContract.invokeFunction(cleanUpVoters, integer(seq), integer(2))
+                .signers(AccountSigner.calledByEntry(a4))
+                .sign().send().getSendRawTransaction().getHash();
+        waitUntilTransactionIsExecuted(hash, neow3j);
+
+        deleted = governanceContract.callInvokeFunction(cleanUpVoters,
+                        asList(integer(seq), integer(10)))
+                .getInvocationResult().getStack().get(0).getInteger();
+        assertThat(deleted, is(BigInteger.ONE));
+
+        // Sequence numbers that were never assigned are refused as well.
+        exception = governanceContract.callInvokeFunction(cleanUpVoters,
+                        asList(integer(0), integer(10)))
+                .getInvocationResult().getException();
+        assertThat(exception, containsString("The voters of active proposals cannot be removed."));
+    }
+
+    @Test
+    public void testGetDueProposals() throws Throwable {
+        ContractParameter memeId = string("getDueProposals");
+        setupBasicProposal(memeId, true);
+        BigInteger currentIndex = neow3j.getBlockCount().send().getBlockCount()
+                .subtract(BigInteger.ONE);
+
+        List<StackItem> page = governanceContract.callInvokeFunction(getDueProposals,
+                        asList(integer(currentIndex), ContractParameter.any(null), integer(100)))
+                .getInvocationResult().getStack().get(0).getList();
+        assertFalse(containsMemeId(page.get(0).getList(), "getDueProposals"));
+
+        ext.fastForward(VOTING_TIME);
+        currentIndex = neow3j.getBlockCount().send().getBlockCount().subtract(BigInteger.ONE);
+
+        List<String> memeIds = new ArrayList<>();
+        ContractParameter cursor = ContractParameter.any(null);
+        boolean hasMore = true;
+        while (hasMore) {
+            page = governanceContract.callInvokeFunction(getDueProposals,
+                            asList(integer(currentIndex), cursor, integer(1)))
+                    .getInvocationResult().getStack().get(0).getList();
+            for (StackItem id : page.get(0).getList()) {
+                memeIds.add(id.getString());
+            }
+            cursor = byteArray(page.get(1).getByteArray());
+            hasMore = page.get(2).getBoolean();
+        }
+        assertTrue(memeIds.contains("getDueProposals"));
+
+        // A limit below 1 still returns one meme id per page.
+        for (int limit : new int[]{0, -1}) {
+            page = governanceContract.callInvokeFunction(getDueProposals,
+                            asList(integer(currentIndex), ContractParameter.any(null),
+                                    integer(limit)))
+                    .getInvocationResult().getStack().get(0).getList();
+            assertThat(page.get(0).getList().size(), is(1));
+        }
+    }
+
+    @Test
+    public void testExecuteDue() throws Throwable {
+        ContractParameter acceptedId = string("executeDueAccepted");
+        ContractParameter rejectedId = string("executeDueRejected");
+        setupBasicProposal(acceptedId, true);
+        setupBasicProposal(rejectedId, true);
+        List<Hash256> votes = new ArrayList<>();
+        for (Account a : asList(a1, a2, a3)) {
+            votes.add(vote(acceptedId, a, true));
+        }
+        votes.add(vote(rejectedId, a1, false));
+        for (Hash256 h : votes) {
+            waitUntilTransactionIsExecuted(h, neow3j);
+        }
+
+        ext.fastForward(VOTING_TIME);
+
+        // Other tests may leave due proposals, so sweep until both proposals are cleared.
+        for (int i = 0; i < 10 && (isOpen(acceptedId) || isOpen(rejectedId)); i++) {
+            Hash256 exec = governanceContract.invokeFunction(executeDue, integer(20))
+                    .signers(AccountSigner.calledByEntry(a4))
+                    .sign().send().getSendRawTransaction().getHash();
+            waitUntilTransactionIsExecuted(exec, neow3j);
+        }
+        assertFalse(isOpen(acceptedId));
+        assertFalse(isOpen(rejectedId));
+
+        assertTrue(memeContract.callFunctionReturningBool(hasMeme, acceptedId));
+        assertFalse(memeContract.callFunctionReturningBool(hasMeme, rejectedId));
+        // The staged meme of the rejected proposal is dropped, so its image is free again.
+        assertThat(memeContract.callInvokeFunction(findMemeByImageHash,
+                        asList(byteArray(imageHashOf(rejectedId))))
+                .getInvocationResult().getStack().get(0).getType(), is(StackItemType.ANY));
+    }
+
+    private static boolean isOpen(ContractParameter memeId) throws IOException {
+        return !governanceContract.callFuncReturningInt(canExecute, memeId)
+                .equals(BigInteger.ONE);
+    }
+
+    private static boolean containsMemeId(List<StackItem> memeIds, String memeId) {
+        for (StackItem id : memeIds) {
+            if (id.getString().equals(memeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testFastTrackSupermajority() throws Throwable {
+        ContractParameter memeId = string("fastTrackSupermajority");
+        setFastTrack(2, 3);
+        try {
+            setupBasicProposal(memeId, true);
+            Hash256 voteFor1 = vote(memeId, a1, true);
+            Hash256 voteFor2 = vote(memeId, a2, true);
+            Hash256 voteFor3 = vote(memeId, a3, true);
+            waitUntilTransactionIsExecuted(voteFor1, neow3j);
+            waitUntilTransactionIsExecuted(voteFor2, neow3j);
+            waitUntilTransactionIsExecuted(voteFor3, neow3j);
+
+            assertFalse(getProposal(memeId).voteInProgress);
+
+            // No fast-forward needed, the proposal can be executed right away.
+            Hash256 exec = execProp(memeId, a4);
+            waitUntilTransactionIsExecuted(exec, neow3j);
+            assertTrue(memeContract.callFunctionReturningBool(hasMeme, memeId));
+        } finally {
+            setFastTrack(0, 0);
+        }
+    }
+
+    @Test
+    public void testRejectUnknownFastTrackRule() throws Throwable {
+        String exception = governanceContract.callInvokeFunction(setFastTrack,
+                        asList(integer(1), integer(4)), AccountSigner.calledByEntry(a1))
+                .getInvocationResult().getException();
+        assertThat(exception, containsString("Unknown fast track rule"));
+    }
+
+    private void setFastTrack(int rule, int threshold) throws Throwable {
+        Hash256 hash = governanceContract.invokeFunction(setFastTrack,
+                        integer(rule), integer(threshold))
+                .signers(AccountSigner.calledByEntry(a1))
+                .sign().send().getSendRawTransaction().getHash();
+        waitUntilTransactionIsExecuted(hash, neow3j);
+    }
+
+    @Test
+    public void testExecuteBundle() throws Throwable {
+        ContractParameter removedMemeId = string("bundleRemoval");
+        createMemeThroughVote(removedMemeId);
+
+        ContractParameter bundleId = string("bundle");
+        String imgHash1 = "5051b3d6f4876cd78e284c07003c41550741042b23b5bd13973cb16cac197275";
+        String imgHash2 = "6051b3d6f4876cd78e284c07003c41550741042b23b5bd13973cb16cac197275";
+        ContractParameter creations = array(
+                array(string("bundleCreation1"), string("d1"), string("u1"), byteArray(imgHash1)),
+                array(string("bundleCreation2"), string("d2"), string("u2"), byteArray(imgHash2)));
+        Hash256 hash = governanceContract.invokeFunction(proposeBundle,
+                        bundleId, creations, array(removedMemeId))
+                .signers(AccountSigner.calledByEntry(a1))
+                .sign().send().getSendRawTransaction().getHash();
+        waitUntilTransactionIsExecuted(hash, neow3j);
+
+        Hash256 voteFor1 = vote(bundleId, a1, true);
+        Hash256 voteFor2 = vote(bundleId, a2, true);
+        Hash256 voteFor3 = vote(bundleId, a3, true);
+        waitUntilTransactionIsExecuted(voteFor1, neow3j);
+        waitUntilTransactionIsExecuted(voteFor2, neow3j);
+        waitUntilTransactionIsExecuted(voteFor3, neow3j);
+
+        ext.fastForward(VOTING_TIME);
+
+        Hash256 exec = execProp(bundleId, a4);
+        waitUntilTransactionIsExecuted(exec, neow3j);
+
+        assertTrue(memeContract.callFunctionReturningBool(hasMeme, string("bundleCreation1")));
+        assertTrue(memeContract.callFunctionReturningBool(hasMeme, string("bundleCreation2")));
+        assertFalse(memeContract.callFunctionReturningBool(hasMeme, removedMemeId));
+    }
+
+    // A meme that is removed by a bundle cannot be removed or archived by another proposal
+    // before the bundle is executed, which would leave the bundle unexecutable.
+    @Test
+    public void testRejectOverlappingRemovals() throws Throwable {
+        ContractParameter memeId = string("overlappingRemoval");
+        createMemeThroughVote(memeId);
+
+        ContractParameter bundleId = string("overlappingRemovalBundle");
+        ContractParameter creationId = string("overlappingRemovalCreation");
+        ContractParameter creations = array(array(creationId, string("d"), string("u"),
+                byteArray(imageHashOf(creationId))));
+        Hash256 hash = governanceContract.invokeFunction(proposeBundle,
+                        bundleId, creations, array(memeId))
+                .signers(AccountSigner.calledByEntry(a1))
+                .sign().send().getSendRawTransaction().getHash();
+        waitUntilTransactionIsExecuted(hash, neow3j);
+
+        // The meme's removal is pending.
+        assertThat(governanceContract.callFuncReturningInt(canPropose, memeId, integer(0),
+                hash160(a1)), is(new BigInteger("11")));
+        try {
+            removeProposal(memeId);
+            fail("A meme that a bundle removes should not be proposed for removal.");
+        } catch (TransactionConfigurationException e) {
+            assertThat(e.getMessage(), containsString("Another proposal already removes"));
+        }
+        try {
+            MemeArchive.proposeArchival(governanceContract, a1, "overlappingRemovalArchival",
+                    asList("overlappingRemoval"));
+            fail("A meme that a bundle removes should not be proposed for archival.");
+        } catch (TransactionConfigurationException e) {
+            assertThat(e.getMessage(), containsString("Another proposal already removes"));
+        }
+
+        passProposal(bundleId);
+        assertFalse(memeContract.callFunctionReturningBool(hasMeme, memeId));
+        assertTrue(memeContract.callFunctionReturningBool(hasMeme, creationId));
+        // The bundle was cleared.
+        assertThat(governanceContract.callFuncReturningInt(canExecute, bundleId),
+                is(BigInteger.ONE));
     }
 
     @Test
@@ -243,6 +639,7 @@ public class ContractsTest {
                 .getInvocationResult().getException();
         // Check whether the meme was successfully removed.
         assertThat(exception, containsString("No meme found for this id."));
+        assertFalse(memeContract.callFunctionReturningBool(hasMeme, memeId));
     }
 
     // Creates a proposal that is not accepted and creates a new proposal with the same meme id.
@@ -251,13 +648,13 @@ public class ContractsTest {
     public void testOverwriteUnacceptedCreateProposal() throws Throwable {
         String memeIdString = "overwriteUnacceptedCreateProposal";
         ContractParameter memeId = string(memeIdString);
-        String imgHash1 = "ae51b3d6f4876cd78e284c07003c41550741042b23b5bd13973cb16cac197275";
+        String imgHash1 = "7051b3d6f4876cd78e284c07003c41550741042b23b5bd13973cb16cac197275";
         createProposal(memeId, "description1", "url1", imgHash1);
 
         // Fast-forward till proposal is finalized.
         ext.fastForward(VOTING_TIME);
 
-        String imgHash2 = "1051b3d6f4876cd78e284c07003c41550741042b23b5bd13973cb16cac197275";
+        String imgHash2 = "8051b3d6f4876cd78e284c07003c41550741042b23b5bd13973cb16cac197275";
         createProposal(memeId, "description2", "url2", imgHash2);
         Hash256 voteFor1 = vote(memeId, a1, true);
         Hash256 voteFor2 = vote(memeId, a2, true);
@@ -281,6 +678,23 @@ public class ContractsTest {
         assertThat(meme.get(3).getHexString(), is(imgHash2));
     }
 
+    // Voters of an overwritten proposal must be able to vote on the new proposal.
+    @Test
+    public void testVoteAgainAfterOverwrite() throws Throwable {
+        ContractParameter memeId = string("voteAgainAfterOverwrite");
+        setupBasicProposal(memeId, true);
+        waitUntilTransactionIsExecuted(vote(memeId, a1, false), neow3j);
+
+        ext.fastForward(VOTING_TIME);
+
+        setupBasicProposal(memeId, true);
+        waitUntilTransactionIsExecuted(vote(memeId, a1, true), neow3j);
+
+        IntProposal proposal = getProposal(memeId);
+        assertThat(proposal.votesInFavor, is(BigInteger.ONE));
+        assertThat(proposal.votesAgainst, is(BigInteger.ZERO));
+    }
+
     // Creates a proposal that is not accepted and creates a new proposal with the same meme id.
     // This should overwrite the existing proposal.
     @Test
@@ -344,6 +758,518 @@ public class ContractsTest {
         assertThat(meme.get(3).getHexString(), is(imgHash4));
     }
 
+    @Test
+    public void testGetMemesAfter() throws Throwable {
+        ContractParameter memeId1 = string("getMemesAfter1");
+        ContractParameter memeId2 = string("getMemesAfter2");
+        createMemeThroughVote(memeId1);
+        createMemeThroughVote(memeId2);
+
+        List<String> memeIds = new ArrayList<>();
+        BigInteger cursor = BigInteger.ZERO;
+        boolean hasMore = true;
+        while (hasMore) {
+            List<StackItem> page = memeContract.callInvokeFunction(getMemesAfter,
+                            asList(integer(cursor), integer(1)))
+                    .getInvocationResult().getStack().get(0).getList();
+            List<StackItem> memes = page.get(0).getList();
+            assertThat(memes.size() <= 1, is(true));
+            for (StackItem meme : memes) {
+                memeIds.add(meme.getList().get(0).getString());
+            }
+            cursor = page.get(1).getInteger();
+            hasMore = page.get(2).getBoolean();
+        }
+        int index1 = memeIds.indexOf("getMemesAfter1");
+        int index2 = memeIds.indexOf("getMemesAfter2");
+        assertTrue(index1 >= 0);
+        assertTrue(index2 > index1);
+    }
+
+    @Test
+    public void testGetByIds() throws Throwable {
+        ContractParameter memeId = string("getByIds");
+        ContractParameter proposalId = string("getByIdsProposal");
+        createMemeThroughVote(memeId);
+        setupBasicProposal(proposalId, true);
+        ContractParameter ids = array(memeId, string("getByIdsMissing"), proposalId);
+
+        List<StackItem> memes = memeContract.callInvokeFunction(getMemesByIds, asList(ids))
+                .getInvocationResult().getStack().get(0).getList();
+        assertThat(memes, hasSize(3));
+        assertThat(memes.get(0).getList().get(0).getString(), is("getByIds"));
+        assertThat(memes.get(1).getType(), is(StackItemType.ANY));
+        // The meme of an open creation proposal is staged and does not exist yet.
+        assertThat(memes.get(2).getType(), is(StackItemType.ANY));
+
+        List<StackItem> proposals = governanceContract.callInvokeFunction(getProposalsByIds,
+                        asList(ids))
+                .getInvocationResult().getStack().get(0).getList();
+        assertThat(proposals, hasSize(3));
+        assertThat(proposals.get(0).getType(), is(StackItemType.ANY));
+        assertThat(proposals.get(1).getType(), is(StackItemType.ANY));
+        assertThat(proposals.get(2).getList().get(0).getList().get(1).getString(), is("desc"));
+    }
+
+    @Test
+    public void testGetChangesSince() throws Throwable {
+        ContractParameter memeId = string("getChangesSince");
+        BigInteger version = memeContract.callFuncReturningInt(getCatalogVersion);
+        createMemeThroughVote(memeId);
+
+        List<StackItem> page = memeContract.callInvokeFunction(getChangesSince,
+                        asList(integer(version), integer(100)))
+                .getInvocationResult().getStack().get(0).getList();
+        assertFalse(page.get(3).getBoolean());
+        List<StackItem> changes = page.get(0).getList();
+        boolean found = false;
+        for (StackItem change : changes) {
+            List<StackItem> entry = change.getList();
+            if (entry.get(2).getString().equals("getChangesSince")) {
+                assertThat(entry.get(1).getInteger(), is(BigInteger.ONE));
+                found = true;
+            }
+        }
+        assertTrue(found);
+        assertThat(page.get(1).getInteger(),
+                is(memeContract.callFuncReturningInt(getCatalogVersion)));
+    }
+
+    @Test
+    public void testChangeRetention() throws Throwable {
+        BigInteger compacted = memeContract.callFuncReturningInt(getCompactedVersion);
+        setChangeRetention(2);
+        try {
+            createMemeThroughVote(string("changeRetention1"));
+            createMemeThroughVote(string("changeRetention2"));
+            createMemeThroughVote(string("changeRetention3"));
+
+            // The log is compacted gradually, so it may still hold more than the last 2 entries.
+            BigInteger newCompacted = memeContract.callFuncReturningInt(getCompactedVersion);
+            assertTrue(newCompacted.compareTo(compacted) > 0);
+
+            // A sync from the beginning cannot be served from the log anymore.
+            List<StackItem> page = memeContract.callInvokeFunction(getChangesSince,
+                            asList(integer(0), integer(10)))
+                    .getInvocationResult().getStack().get(0).getList();
+            assertThat(page.get(0).getList(), hasSize(0));
+            assertTrue(page.get(3).getBoolean());
+
+            // The last 2 entries are kept.
+            BigInteger version = memeContract.callFuncReturningInt(getCatalogVersion);
+            page = memeContract.callInvokeFunction(getChangesSince,
+                            asList(integer(version.subtract(BigInteger.valueOf(2))),
+                                    integer(10)))
+                    .getInvocationResult().getStack().get(0).getList();
+            assertThat(page.get(0).getList(), hasSize(2));
+            assertFalse(page.get(3).getBoolean());
+
+            // A negative version is treated like 0.
+            String exception = memeContract.callInvokeFunction(getChangesSince,
+                            asList(integer(-5), integer(10)))
+                    .getInvocationResult().getException();
+            assertThat(exception, is((String) null));
+        } finally {
+            setChangeRetention(0);
+        }
+    }
+
+    private void setChangeRetention(int retention) throws Throwable {
+        Hash256 hash = governanceContract.invokeFunction(setChangeRetention, integer(retention))
+                .signers(AccountSigner.calledByEntry(a1))
+                .sign().send().getSendRawTransaction().getHash();
+        waitUntilTransactionIsExecuted(hash, neow3j);
+    }
+
+    @Test
+    public void testCounters() throws Throwable {
+        BigInteger memeCount = memeContract.callFuncReturningInt(getMemeCount);
+        BigInteger proposalCount = governanceContract.callFuncReturningInt(getProposalCount);
+        setupBasicProposal(string("countersProposal"), true);
+        assertThat(governanceContract.callFuncReturningInt(getProposalCount),
+                is(proposalCount.add(BigInteger.ONE)));
+        // The new proposal is still open, i.e., not counted as closed on any page.
+        BigInteger closed = BigInteger.ZERO;
+        BigInteger total = BigInteger.ZERO;
+        ContractParameter cursor = ContractParameter.any(null);
+        boolean hasMore = true;
+        while (hasMore) {
+            List<StackItem> counts = governanceContract.callInvokeFunction(getProposalCounts,
+                            asList(cursor, integer(1)))
+                    .getInvocationResult().getStack().get(0).getList();
+            total = counts.get(0).getInteger();
+            BigInteger pageCount = counts.get(1).getInteger().add(counts.get(2).getInteger());
+            assertTrue(pageCount.compareTo(BigInteger.ONE) <= 0);
+            closed = closed.add(pageCount);
+            hasMore = counts.get(4).getBoolean();
+            if (hasMore) {
+                cursor = byteArray(counts.get(3).getByteArray());
+            }
+        }
+        assertTrue(total.subtract(closed).signum() > 0);
+
+        createMemeThroughVote(string("countersMeme"));
+        assertThat(memeContract.callFuncReturningInt(getMemeCount),
+                is(memeCount.add(BigInteger.ONE)));
+        // The executed proposal is not counted anymore.
+        assertThat(governanceContract.callFuncReturningInt(getProposalCount),
+                is(proposalCount.add(BigInteger.ONE)));
+    }
+
+    @Test
+    public void testRejectDuplicateImage() throws Throwable {
+        ContractParameter memeId = string("duplicateImage");
+        createMemeThroughVote(memeId);
+        String imgHash = imageHashOf(memeId);
+
+        String foundId = memeContract.callInvokeFunction(findMemeByImageHash,
+                        asList(byteArray(imgHash)))
+                .getInvocationResult().getStack().get(0).getString();
+        assertThat(foundId, is("duplicateImage"));
+        try {
+            createProposal(string("duplicateImageCopy"), "desc", "url", imgHash);
+            fail("A meme with an image that is already used should not be proposed.");
+        } catch (TransactionConfigurationException e) {
+            assertThat(e.getMessage(), containsString("its image is already used"));
+        }
+    }
+
+    @Test
+    public void testRejectInvalidImageHash() throws Throwable {
+        String shortHash = "0102030405";
+        try {
+            createProposal(string("invalidImageHash"), "desc", "url", shortHash);
+            fail("A meme with an image hash that is not 32 bytes long should not be proposed.");
+        } catch (TransactionConfigurationException e) {
+            assertThat(e.getMessage(), containsString("must be a sha256 hash"));
+        }
+
+        ContractParameter creationId = string("invalidImageHashCreation");
+        String exception = governanceContract.callInvokeFunction(proposeBundle,
+                        asList(string("invalidImageHashBundle"),
+                                array(array(creationId, string("d"), string("u"),
+                                        byteArray(shortHash))),
+                                array()),
+                        AccountSigner.calledByEntry(a1))
+                .getInvocationResult().getException();
+        assertThat(exception, containsString("must be a sha256 hash"));
+
+        assertThat(memeContract.callInvokeFunction(findMemeByImageHash,
+                        asList(byteArray(shortHash)))
+                .getInvocationResult().getStack().get(0).getType(), is(StackItemType.ANY));
+    }
+
+    @Test
+    public void testSearchMemes() throws Throwable {
+        createMemeThroughVote(string("searchMemesA"));
+        createMemeThroughVote(string("SearchMemesB"));
+
+        List<StackItem> memes = memeContract.callInvokeFunction(searchMemes,
+                        asList(string("searchMemes"), ContractParameter.any(null), integer(10)))
+                .getInvocationResult().getStack().get(0).getList().get(0).getList();
+        assertThat(memes, hasSize(1));
+        assertThat(memes.get(0).getList().get(0).getString(), is("searchMemesA"));
+
+        memes = memeContract.callInvokeFunction(searchMemesIgnoreCase,
+                        asList(string("SEARCHMEMES"), ContractParameter.any(null), integer(10)))
+                .getInvocationResult().getStack().get(0).getList().get(0).getList();
+        assertThat(memes, hasSize(2));
+    }
+
+    // The index key of an id continues with the hash of the id. A prefix that extends a shorter
+    // id with the first byte of that hash must not match the shorter id.
+    @Test
+    public void testSearchMemesIgnoresHashBytes() throws Throwable {
+        String shortId = "searchHash";
+        createMemeThroughVote(string(shortId));
+        createMemeThroughVote(string(shortId + "es"));
+
+        byte[] id = shortId.getBytes(StandardCharsets.UTF_8);
+        byte[] prefix = Arrays.copyOf(id, id.length + 1);
+        prefix[id.length] = Hash.ripemd160(id)[0];
+        List<StackItem> memes = memeContract.callInvokeFunction(searchMemes,
+                        asList(byteArray(prefix), ContractParameter.any(null), integer(10)))
+                .getInvocationResult().getStack().get(0).getList().get(0).getList();
+        for (StackItem meme : memes) {
+            assertThat(meme.getList().get(0).getString(), not(shortId));
+        }
+
+        memes = memeContract.callInvokeFunction(searchMemes,
+                        asList(string(shortId + "e"), ContractParameter.any(null), integer(10)))
+                .getInvocationResult().getStack().get(0).getList().get(0).getList();
+        assertThat(memes, hasSize(1));
+        assertThat(memes.get(0).getList().get(0).getString(), is(shortId + "es"));
+    }
+
+    @Test
+    public void testGetLatestMemes() throws Throwable {
+        createMemeThroughVote(string("getLatestMemes1"));
+        createMemeThroughVote(string("getLatestMemes2"));
+
+        List<StackItem> page = memeContract.callInvokeFunction(getLatestMemes,
+                        asList(integer(0), integer(2)))
+                .getInvocationResult().getStack().get(0).getList();
+        List<StackItem> memes = page.get(0).getList();
+        assertThat(memes, hasSize(2));
+        assertThat(memes.get(0).getList().get(0).getString(), is("getLatestMemes2"));
+        assertThat(memes.get(1).getList().get(0).getString(), is("getLatestMemes1"));
+    }
+
+    @Test
+    public void testStatusQueries() throws Throwable {
+        ContractParameter memeId = string("statusQueries");
+        assertThat(governanceContract.callFuncReturningInt(canPropose, memeId, integer(1),
+                hash160(a1)), is(BigInteger.ZERO));
+        setupBasicProposal(memeId, true);
+        // A proposal is still ongoing for this meme id.
+        assertThat(governanceContract.callFuncReturningInt(canPropose, memeId, integer(1),
+                hash160(a1)), is(new BigInteger("4")));
+        assertThat(governanceContract.callFuncReturningInt(canExecute, memeId),
+                is(new BigInteger("4")));
+        assertThat(governanceContract.callFuncReturningInt(canVote, memeId, hash160(a1)),
+                is(BigInteger.ZERO));
+        assertFalse(governanceContract.callFunctionReturningBool(hasVoted, memeId, hash160(a1)));
+
+        waitUntilTransactionIsExecuted(vote(memeId, a1, true), neow3j);
+        assertTrue(governanceContract.callFunctionReturningBool(hasVoted, memeId, hash160(a1)));
+        // Already voted.
+        assertThat(governanceContract.callFuncReturningInt(canVote, memeId, hash160(a1)),
+                is(new BigInteger("3")));
+    }
+
+    @Test
+    public void testGetProposalSummariesAfter() throws Throwable {
+        ContractParameter memeId = string("getProposalSummariesAfter");
+        setupBasicProposal(memeId, true);
+
+        List<StackItem> summary = null;
+        BigInteger cursor = BigInteger.ZERO;
+        boolean hasMore = true;
+        while (hasMore) {
+            List<StackItem> page = governanceContract.callInvokeFunction(
+                            getProposalSummariesAfter, asList(integer(cursor), integer(100)))
+                    .getInvocationResult().getStack().get(0).getList();
+            for (StackItem item : page.get(0).getList()) {
+                if (item.getList().get(0).getString().equals("getProposalSummariesAfter")) {
+                    summary = item.getList();
+                }
+            }
+            cursor = page.get(1).getInteger();
+            hasMore = page.get(2).getBoolean();
+        }
+        assertThat(summary, hasSize(6));
+        assertThat(summary.get(1).getInteger(), is(BigInteger.ONE));
+        assertTrue(summary.get(2).getBoolean());
+    }
+
+    @Test
+    public void testGetLatestProposals() throws Throwable {
+        ContractParameter olderId = string("latestProposalOlder");
+        ContractParameter newerId = string("latestProposalNewer");
+        setupBasicProposal(olderId, true);
+        setupBasicProposal(newerId, true);
+
+        List<StackItem> page = governanceContract.callInvokeFunction(getLatestProposals,
+                        asList(integer(0), integer(1)))
+                .getInvocationResult().getStack().get(0).getList();
+        List<StackItem> proposals = page.get(0).getList();
+        assertThat(proposals, hasSize(1));
+        assertThat(proposals.get(0).getList().get(0).getList().get(0).getString(),
+                is("latestProposalNewer"));
+        assertTrue(page.get(2).getBoolean());
+
+        // The next page continues with the proposal before the cursor.
+        page = governanceContract.callInvokeFunction(getLatestProposals,
+                        asList(integer(page.get(1).getInteger()), integer(1)))
+                .getInvocationResult().getStack().get(0).getList();
+        proposals = page.get(0).getList();
+        assertThat(proposals, hasSize(1));
+        assertThat(proposals.get(0).getList().get(0).getList().get(0).getString(),
+                is("latestProposalOlder"));
+    }
+
+    @Test
+    public void testProposalDeposit() throws Throwable {
+        ContractParameter memeId = string("proposalDeposit");
+        BigInteger deposit = new GasToken(neow3j).toFractions(BigDecimal.ONE);
+        setProposalDeposit(deposit);
+        try {
+            assertThat(governanceContract.callFuncReturningInt(canPropose, memeId, integer(1),
+                    hash160(a1)), is(new BigInteger("13")));
+            try {
+                setupBasicProposal(memeId, true);
+                fail("A proposal without deposit should not be accepted.");
+            } catch (TransactionConfigurationException e) {
+                assertThat(e.getMessage(), containsString("Insufficient deposit"));
+            }
+
+            depositGas(deposit);
+            assertThat(governanceContract.callFuncReturningInt(getDeposit, hash160(a1)),
+                    is(deposit));
+
+            setupBasicProposal(memeId, true);
+            // The deposit is locked in the proposal.
+            assertThat(governanceContract.callFuncReturningInt(getDeposit, hash160(a1)),
+                    is(BigInteger.ZERO));
+
+            // The deposit is credited back once the accepted proposal is executed.
+            passProposal(memeId);
+            assertThat(governanceContract.callFuncReturningInt(getDeposit, hash160(a1)),
+                    is(deposit));
+        } finally {
+            setProposalDeposit(BigInteger.ZERO);
+        }
+    }
+
+    @Test
+    public void testForfeitDeposit() throws Throwable {
+        ContractParameter memeId = string("forfeitDeposit");
+        BigInteger deposit = new GasToken(neow3j).toFractions(BigDecimal.ONE);
+        setProposalDeposit(deposit);
+        try {
+            BigInteger balance = governanceContract.callFuncReturningInt(getDeposit, hash160(a1));
+            BigInteger forfeited = governanceContract.callFuncReturningInt(getForfeitedDeposits);
+            depositGas(deposit.multiply(new BigInteger("2")));
+
+            setupBasicProposal(memeId, true);
+            ext.fastForward(VOTING_TIME);
+            // Overwriting the rejected proposal forfeits its deposit.
+            setupBasicProposal(memeId, true);
+            assertThat(governanceContract.callFuncReturningInt(getForfeitedDeposits),
+                    is(forfeited.add(deposit)));
+
+            // Clearing the rejected proposal forfeits its deposit.
+            ext.fastForward(VOTING_TIME);
+            waitUntilTransactionIsExecuted(execProp(memeId, a1), neow3j);
+            assertThat(governanceContract.callFuncReturningInt(getForfeitedDeposits),
+                    is(forfeited.add(deposit).add(deposit)));
+            assertThat(governanceContract.callFuncReturningInt(getDeposit, hash160(a1)),
+                    is(balance));
+        } finally {
+            setProposalDeposit(BigInteger.ZERO);
+        }
+    }
+
+    @Test
+    public void testMaxOpenProposals() throws Throwable {
+        BigInteger open = governanceContract.callFuncReturningInt(getOpenProposals, hash160(a1));
+        setMaxOpenProposals(open.add(BigInteger.ONE));
+        try {
+            setupBasicProposal(string("maxOpenProposals1"), true);
+            assertThat(governanceContract.callFuncReturningInt(getOpenProposals, hash160(a1)),
+                    is(open.add(BigInteger.ONE)));
+            assertThat(governanceContract.callFuncReturningInt(canPropose,
+                    string("maxOpenProposals2"), integer(1), hash160(a1)),
+                    is(new BigInteger("12")));
+            // Other accounts are not affected.
+            assertThat(governanceContract.callFuncReturningInt(canPropose,
+                    string("maxOpenProposals2"), integer(1), hash160(a2)), is(BigInteger.ZERO));
+            try {
+                setupBasicProposal(string("maxOpenProposals2"), true);
+                fail("An account should not exceed the maximum number of open proposals.");
+            } catch (TransactionConfigurationException e) {
+                assertThat(e.getMessage(), containsString("Too many open proposals"));
+            }
+        } finally {
+            setMaxOpenProposals(BigInteger.ZERO);
+        }
+    }
+
+    // A contract that the sender invokes must not create proposals on the sender's behalf.
+    @Test
+    public void testProposeWithoutWitness() throws Throwable {
+        ContractParameter memeId = string("proposeWithoutWitness");
+        String exception = governanceContract.callInvokeFunction(proposeNewMeme,
+                        asList(memeId, string("desc"), string("url"),
+                                byteArray(imageHashOf(memeId))),
+                        AccountSigner.none(a1))
+                .getInvocationResult().getException();
+        assertThat(exception, containsString("No valid signature for the proposer"));
+    }
+
+    private void setProposalDeposit(BigInteger deposit) throws Throwable {
+        Hash256 hash = governanceContract.invokeFunction(setProposalDeposit, integer(deposit))
+                .signers(AccountSigner.calledByEntry(a1))
+                .sign().send().getSendRawTransaction().getHash();
+        waitUntilTransactionIsExecuted(hash, neow3j);
+    }
+
+    private void setMaxOpenProposals(BigInteger maxOpenProposals) throws Throwable {
+        Hash256 hash = governanceContract.invokeFunction(setMaxOpenProposals,
+                        integer(maxOpenProposals))
+                .signers(AccountSigner.calledByEntry(a1))
+                .sign().send().getSendRawTransaction().getHash();
+        waitUntilTransactionIsExecuted(hash, neow3j);
+    }
+
+    private void depositGas(BigInteger amount) throws Throwable {
+        Hash256 transfer = new GasToken(neow3j)
+                .transfer(a1, governanceContract.getScriptHash(), amount)
+                .sign().send().getSendRawTransaction().getHash();
+        waitUntilTransactionIsExecuted(transfer, neow3j);
+    }
+
+    @Test
+    public void testUrlPrefix() throws Throwable {
+        Hash256 hash = governanceContract.invokeFunction(addUrlPrefix, string("https://i.redd.it/"))
+                .signers(AccountSigner.calledByEntry(a1))
+                .sign().send().getSendRawTransaction().getHash();
+        waitUntilTransactionIsExecuted(hash, neow3j);
+
+        ContractParameter memeId = string("urlPrefix");
+        createMemeThroughVote(memeId, "desc", "https://i.redd.it/urlPrefix.png",
+                imageHashOf(memeId));
+        List<StackItem> meme = memeContract.callInvokeFunction(getMeme, asList(memeId))
+                .getInvocationResult().getStack().get(0).getList();
+        assertThat(meme.get(2).getString(), is("https://i.redd.it/urlPrefix.png"));
+    }
+
+    @Test
+    public void testArchiveMemes() throws Throwable {
+        ContractParameter memeId1 = string("archivedMeme1");
+        ContractParameter memeId2 = string("archivedMeme2");
+        createMemeThroughVote(memeId1);
+        createMemeThroughVote(memeId2);
+
+        ContractParameter archivalId = string("archival");
+        waitUntilTransactionIsExecuted(MemeArchive.proposeArchival(governanceContract, a1,
+                "archival", asList("archivedMeme1", "archivedMeme2")), neow3j);
+        List<StackItem> archived = governanceContract.callInvokeFunction(getArchival,
+                        asList(archivalId))
+                .getInvocationResult().getStack().get(0).getList();
+        assertThat(archived, hasSize(2));
+        // Archiving needs an accepted proposal like any other change of the catalog.
+        assertTrue(memeContract.callFunctionReturningBool(hasMeme, memeId1));
+        passProposal(archivalId);
+
+        assertFalse(memeContract.callFunctionReturningBool(hasMeme, memeId1));
+        assertTrue(memeContract.callFunctionReturningBool(isArchived, memeId1));
+        // The id of an archived meme cannot be used again.
+        assertThat(governanceContract.callFuncReturningInt(canPropose, memeId1, integer(1),
+                hash160(a1)), is(new BigInteger("14")));
+
+        // The root that the contract computed matches the tree built from the events.
+        BigInteger currentIndex = neow3j.getBlockCount().send().getBlockCount()
+                .subtract(BigInteger.ONE);
+        MemeArchive archive = MemeArchive.fromEvents(neow3j, governanceContract.getScriptHash(),
+                BigInteger.ZERO, currentIndex);
+        byte[] root = memeContract.callInvokeFunction(getArchiveRoot)
+                .getInvocationResult().getStack().get(0).getByteArray();
+        assertThat(archive.getRoot(), is(root));
+
+        int index = archive.indexOf("archivedMeme2");
+        assertTrue(memeContract.callFunctionReturningBool(verifyMeme,
+                archive.getVerifyParameters(index).toArray(new ContractParameter[0])));
+
+        // A meme with a wrong description does not verify against the root.
+        List<ContractParameter> params = archive.getVerifyParameters(
+                archive.indexOf("archivedMeme1"));
+        params.set(0, array(memeId1, string("fakeDescription"), string("AxLabsUrl"),
+                byteArray(imageHashOf(memeId1))));
+        assertFalse(memeContract.callFunctionReturningBool(verifyMeme,
+                params.toArray(new ContractParameter[0])));
+    }
+
     private static void fundAccounts(Account... accounts) throws Throwable {
         ContractTestExtension.GenesisAccount genesis = ext.getGenesisAccount();
         GasToken gasToken = new GasToken(neow3j);
@@ -387,8 +1313,7 @@ public class ContractsTest {
 
     private Hash256 setupBasicProposal(ContractParameter memeId, boolean create) throws Throwable {
         if (create) {
-            return createProposal(memeId, "desc", "url",
-                    "ae51b3d6f4876cd78e284c07003c41550741042b23b5bd13973cb16cac197275");
+            return createProposal(memeId, "desc", "url", imageHashOf(memeId));
         } else {
             return removeProposal(memeId);
         }
@@ -411,23 +1336,31 @@ public class ContractsTest {
     private void createMemeThroughVote(ContractParameter memeId, String description, String url,
             String imgHash) throws Throwable {
         createProposal(memeId, description, url, imgHash);
+        passProposal(memeId);
+    }
 
-        Hash256 voteFor1 = vote(memeId, a1, true);
-        Hash256 voteFor2 = vote(memeId, a2, true);
-        Hash256 voteFor3 = vote(memeId, a3, true);
+    // Votes in favor of a proposal with three accounts and executes it.
+    private void passProposal(ContractParameter proposalId) throws Throwable {
+        Hash256 voteFor1 = vote(proposalId, a1, true);
+        Hash256 voteFor2 = vote(proposalId, a2, true);
+        Hash256 voteFor3 = vote(proposalId, a3, true);
         waitUntilTransactionIsExecuted(voteFor1, neow3j);
         waitUntilTransactionIsExecuted(voteFor2, neow3j);
         waitUntilTransactionIsExecuted(voteFor3, neow3j);
 
         ext.fastForward(VOTING_TIME);
 
-        Hash256 exec = execProp(memeId, a1);
+        Hash256 exec = execProp(proposalId, a1);
         waitUntilTransactionIsExecuted(exec, neow3j);
     }
 
     private void createMemeThroughVote(ContractParameter memeId) throws Throwable {
-        createMemeThroughVote(memeId, "coolDescription", "AxLabsUrl",
-                "ae51b3d6f4876cd78e284c07003c41550741042b23b5bd13973cb16cac197275");
+        createMemeThroughVote(memeId, "coolDescription", "AxLabsUrl", imageHashOf(memeId));
+    }
+
+    // Memes must not share an image, so each meme id gets its own image hash.
+    private static String imageHashOf(ContractParameter memeId) {
+        return Numeric.toHexStringNoPrefix(Hash.sha256(((String) memeId.getValue()).getBytes()));
     }
 
     private static IntProposal getProposal(ContractParameter memeId) throws IOException {
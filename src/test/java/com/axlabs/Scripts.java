@@ -120,7 +120,7 @@ public class Scripts {
         SmartContract govContract = new SmartContract(govContractHash, neow);
         NeoSendRawTransaction response = govContract.invokeFunction("proposeNewMeme",
                         string(memeId), string(description), string(url), byteArray(imageHash))
-                .signers(AccountSigner.none(alice))
+                .signers(AccountSigner.calledByEntry(alice))
                 .sign()
                 .send();
 
@@ -0,0 +1,222 @@
+package com.axlabs;
+
+import io.neow3j.contract.SmartContract;
+import io.neow3j.crypto.Hash;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.NeoApplicationLog;
+import io.neow3j.protocol.core.response.NeoBlock;
+import io.neow3j.protocol.core.response.Notification;
+import io.neow3j.protocol.core.response.Transaction;
+import io.neow3j.protocol.core.stackitem.StackItem;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash160;
+import io.neow3j.types.Hash256;
+import io.neow3j.wallet.Account;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static io.neow3j.types.ContractParameter.array;
+import static io.neow3j.types.ContractParameter.byteArray;
+import static io.neow3j.types.ContractParameter.string;
+
+/**
+ * Builds the Merkle tree over the archived memes of the MemeContract and the inclusion proofs that
+ * {@code MemeContract.verifyMeme} checks.
+ * <p>
+ * Archived memes are not in the contract storage anymore. Their data is recovered from the
+ * {@code MemeCreation} events of the GovernanceContract and their position in the archive from its
+ * {@code MemeArchival} events. The contract maintains the root itself, so {@link #getRoot()} can
+ * be compared with {@code MemeContract.getArchiveRoot} to check that the events are complete.
+ */
+public class MemeArchive {
+
+    private static final byte LEAF_HASH_PREFIX = 0x00;
+    private static final byte NODE_HASH_PREFIX = 0x01;
+
+    private final List<ArchivedMeme> memes = new ArrayList<>();
+
+    /**
+     * Rebuilds the archive from the events that the GovernanceContract fired in the given block
+     * range. The range has to cover the creation and the archival of all archived memes.
+     */
+    public static MemeArchive fromEvents(Neow3j neow3j, Hash160 governanceContract,
+            BigInteger fromBlock, BigInteger toBlock) throws Throwable {
+        Map<String, ArchivedMeme> created = new HashMap<>();
+        Map<Integer, String> archived = new HashMap<>();
+        for (BigInteger i = fromBlock; i.compareTo(toBlock) <= 0; i = i.add(BigInteger.ONE)) {
+            NeoBlock block = neow3j.getBlock(i, true).send().getBlock();
+            for (Transaction tx : block.getTransactions()) {
+                NeoApplicationLog log = neow3j.getApplicationLog(tx.getHash()).send()
+                        .getApplicationLog();
+                for (NeoApplicationLog.Execution execution : log.getExecutions()) {
+                    for (Notification n : execution.getNotifications()) {
+                        if (!n.getContract().equals(governanceContract)) {
+                            continue;
+                        }
+                        List<StackItem> state = n.getState().getList();
+                        if (n.getEventName().equals("MemeCreation")) {
+                            ArchivedMeme meme = new ArchivedMeme(state.get(0).getString(),
+                                    state.get(1).getString(), state.get(2).getString(),
+                                    state.get(3).getByteArray());
+                            created.put(meme.id, meme);
+                        } else if (n.getEventName().equals("MemeArchival")) {
+                            archived.put(state.get(1).getInteger().intValue(),
+                                    state.get(0).getString());
+                        }
+                    }
+                }
+            }
+        }
+        MemeArchive archive = new MemeArchive();
+        for (int index = 0; index < archived.size(); index++) {
+            String memeId = archived.get(index);
+            if (memeId == null || !created.containsKey(memeId)) {
+                throw new IllegalStateException("The block range does not cover the creation "
+                        + "and archival of the meme at archive index " + index + ".");
+            }
+            archive.memes.add(created.get(memeId));
+        }
+        return archive;
+    }
+
+    /**
+     * Proposes to archive the memes with the given ids. Once the proposal is accepted and executed,
+     * the GovernanceContract fires a {@code MemeArchival} event with the archive index of each
+     * meme.
+     *
+     * @param governanceContract the governance contract.
+     * @param proposer the account that creates the proposal.
+     * @param archivalId the id of the archival proposal.
+     * @param memeIds the ids of the memes to archive.
+     * @return the hash of the transaction.
+     */
+    public static Hash256 proposeArchival(SmartContract governanceContract, Account proposer,
+            String archivalId, List<String> memeIds) throws Throwable {
+        ContractParameter ids = array(memeIds.stream()
+                .map(ContractParameter::string)
+                .collect(Collectors.toList()));
+        return governanceContract.invokeFunction("proposeArchival", string(archivalId), ids)
+                .signers(AccountSigner.calledByEntry(proposer))
+                .sign().send().getSendRawTransaction().getHash();
+    }
+
+    public List<ArchivedMeme> getMemes() {
+        return memes;
+    }
+
+    /**
+     * Gets the archive index of the meme with the given id, or -1 if it is not archived.
+     */
+    public int indexOf(String memeId) {
+        for (int i = 0; i < memes.size(); i++) {
+            if (memes.get(i).id.equals(memeId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the Merkle root over all memes of this archive.
+     */
+    public byte[] getRoot() {
+        if (memes.isEmpty()) {
+            throw new IllegalStateException("The archive is empty.");
+        }
+        List<byte[]> level = getLeaves();
+        while (level.size() > 1) {
+            level = nextLevel(level);
+        }
+        return level.get(0);
+    }
+
+    /**
+     * Gets the sibling hashes from the leaf of the meme at the given index up to the root. Levels
+     * on which the node has no sibling are skipped, like {@code MemeContract.verifyMeme} expects.
+     */
+    public List<byte[]> getProof(int index) {
+        List<byte[]> proof = new ArrayList<>();
+        List<byte[]> level = getLeaves();
+        while (level.size() > 1) {
+            if (index % 2 == 1) {
+                proof.add(level.get(index - 1));
+            } else if (index + 1 < level.size()) {
+                proof.add(level.get(index + 1));
+            }
+            level = nextLevel(level);
+            index = index / 2;
+        }
+        return proof;
+    }
+
+    /**
+     * Creates the parameters of {@code MemeContract.verifyMeme} for the meme at the given index.
+     */
+    public List<ContractParameter> getVerifyParameters(int index) {
+        ArchivedMeme meme = memes.get(index);
+        List<ContractParameter> proof = getProof(index).stream()
+                .map(ContractParameter::byteArray)
+                .collect(Collectors.toList());
+        List<ContractParameter> params = new ArrayList<>();
+        params.add(array(string(meme.id), string(meme.description), string(meme.url),
+                byteArray(meme.imageHash)));
+        params.add(array(proof));
+        params.add(ContractParameter.integer(index));
+        return params;
+    }
+
+    private List<byte[]> getLeaves() {
+        return memes.stream().map(MemeArchive::hashLeaf).collect(Collectors.toList());
+    }
+
+    private static List<byte[]> nextLevel(List<byte[]> level) {
+        List<byte[]> next = new ArrayList<>();
+        for (int i = 0; i < level.size(); i += 2) {
+            if (i + 1 < level.size()) {
+                next.add(hashNode(level.get(i), level.get(i + 1)));
+            } else {
+                // A node without a sibling is moved up unchanged.
+                next.add(level.get(i));
+            }
+        }
+        return next;
+    }
+
+    static byte[] hashLeaf(ArchivedMeme meme) {
+        byte[] id = Hash.sha256(meme.id.getBytes(StandardCharsets.UTF_8));
+        byte[] description = Hash.sha256(meme.description.getBytes(StandardCharsets.UTF_8));
+        byte[] url = Hash.sha256(meme.url.getBytes(StandardCharsets.UTF_8));
+        return Hash.sha256(ByteBuffer.allocate(1 + 3 * 32 + meme.imageHash.length)
+                .put(LEAF_HASH_PREFIX).put(id).put(description).put(url).put(meme.imageHash)
+                .array());
+    }
+
+    static byte[] hashNode(byte[] left, byte[] right) {
+        return Hash.sha256(ByteBuffer.allocate(1 + left.length + right.length)
+                .put(NODE_HASH_PREFIX).put(left).put(right)
+                .array());
+    }
+
+    public static class ArchivedMeme {
+        public final String id;
+        public final String description;
+        public final String url;
+        public final byte[] imageHash;
+
+        public ArchivedMeme(String id, String description, String url, byte[] imageHash) {
+            this.id = id;
+            this.description = description;
+            this.url = url;
+            this.imageHash = imageHash;
+        }
+    }
+
+}
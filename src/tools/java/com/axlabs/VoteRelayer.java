@@ -0,0 +1,207 @@
+package com.axlabs;
+
+import io.neow3j.contract.SmartContract;
+import io.neow3j.crypto.ECKeyPair;
+import io.neow3j.crypto.Sign;
+import io.neow3j.protocol.core.response.NeoSendRawTransaction;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash160;
+import io.neow3j.types.Hash256;
+import io.neow3j.wallet.Account;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.neow3j.types.ContractParameter.array;
+import static io.neow3j.types.ContractParameter.bool;
+import static io.neow3j.types.ContractParameter.byteArray;
+import static io.neow3j.types.ContractParameter.integer;
+import static io.neow3j.types.ContractParameter.publicKey;
+import static io.neow3j.types.ContractParameter.string;
+
+/**
+ * Collects votes that were signed off-chain and submits them to the GovernanceContract's
+ * {@code submitVotes} method. A batch is submitted as soon as it reaches the maximum batch size, or
+ * once the oldest vote in it has waited for the maximum delay.
+ */
+public class VoteRelayer implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VoteRelayer.class);
+
+    private final SmartContract governanceContract;
+    private final Account relayer;
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor();
+
+    private final List<SignedVote> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * @param governanceContract the governance contract to submit the votes to.
+     * @param relayer the account that signs and pays for the transactions.
+     * @param maxBatchSize the number of votes that triggers a submission. Should not exceed the
+     *        contract's maximum vote batch size.
+     * @param maxDelayMillis the time after which a vote is submitted even if the batch is not full.
+     */
+    public VoteRelayer(SmartContract governanceContract, Account relayer, int maxBatchSize,
+            long maxDelayMillis) {
+        this.governanceContract = governanceContract;
+        this.relayer = relayer;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Adds a signed vote to the current batch.
+     *
+     * @return the hash of the transaction if adding the vote filled the batch and it was
+     *         submitted, null otherwise.
+     */
+    public synchronized Hash256 add(SignedVote vote) throws Throwable {
+        pending.add(vote);
+        // Scheduled before a full batch is flushed as well, so that the votes are retried if the
+        // submission fails.
+        scheduleFlush();
+        if (pending.size() >= maxBatchSize) {
+            return flush();
+        }
+        return null;
+    }
+
+    /**
+     * Submits all pending votes in one transaction. The votes are only removed once the node
+     * accepted the transaction. If the submission fails, they stay pending and are submitted with
+     * the next flush.
+     *
+     * @return the hash of the transaction, or null if there were no pending votes.
+     */
+    public synchronized Hash256 flush() throws Throwable {
+        if (pending.isEmpty()) {
+            cancelScheduledFlush();
+            return null;
+        }
+        List<ContractParameter> votes = new ArrayList<>();
+        for (SignedVote vote : pending) {
+            votes.add(vote.toContractParameter());
+        }
+        NeoSendRawTransaction response = governanceContract
+                .invokeFunction("submitVotes", array(votes))
+                .signers(AccountSigner.none(relayer))
+                .sign().send();
+        if (response.hasError()) {
+            response.throwOnError();
+        }
+        pending.clear();
+        cancelScheduledFlush();
+        return response.getSendRawTransaction().getHash();
+    }
+
+    private synchronized void flushScheduled() {
+        // This is the scheduled flush, so it does not have to be cancelled anymore.
+        scheduledFlush = null;
+        try {
+            Hash256 hash = flush();
+            if (hash != null) {
+                LOG.info("Submitted votes in transaction {}.", hash);
+            }
+        } catch (Throwable t) {
+            LOG.error("Failed to submit votes. Retrying in {} ms.", maxDelayMillis, t);
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        if (scheduledFlush == null && !scheduler.isShutdown()) {
+            scheduledFlush = scheduler.schedule(this::flushScheduled, maxDelayMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+
+    /**
+     * Submits the pending votes and stops the scheduled submissions.
+     */
+    @Override
+    public void close() throws Exception {
+        try {
+            flush();
+        } catch (Throwable t) {
+            throw new Exception("Failed to submit the pending votes.", t);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Creates the message that a voter signs, i.e., the big-endian network magic, the contract's
+     * script hash in little-endian order, the big-endian nonce, one byte for the vote and the meme
+     * id.
+     */
+    public static byte[] createVoteMessage(long networkMagic, Hash160 governanceContract,
+            String memeId, boolean inFavor, int nonce) {
+        byte[] id = memeId.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 + Hash160.LENGTH + 4 + 1 + id.length)
+                .putInt((int) networkMagic)
+                .put(governanceContract.toLittleEndianArray())
+                .putInt(nonce)
+                .put((byte) (inFavor ? 1 : 0))
+                .put(id)
+                .array();
+    }
+
+    /**
+     * Signs a vote with the key pair of the voter.
+     *
+     * @param networkMagic the magic number of the network, e.g., from
+     *        {@code Neow3j.getNetworkMagicNumber()}.
+     * @param nonce the nonce of the proposal as returned by the contract's {@code getVoteNonce}.
+     */
+    public static SignedVote signVote(ECKeyPair keyPair, long networkMagic,
+            Hash160 governanceContract, String memeId, boolean inFavor, int nonce) {
+        byte[] message = createVoteMessage(networkMagic, governanceContract, memeId, inFavor,
+                nonce);
+        byte[] signature = Sign.signMessage(message, keyPair).getConcatenated();
+        return new SignedVote(keyPair.getPublicKey().getEncoded(true), memeId, inFavor, nonce,
+                signature);
+    }
+
+    public static class SignedVote {
+        public final byte[] voter;
+        public final String memeId;
+        public final boolean inFavor;
+        public final int nonce;
+        public final byte[] signature;
+
+        public SignedVote(byte[] voter, String memeId, boolean inFavor, int nonce,
+                byte[] signature) {
+            this.voter = voter;
+            this.memeId = memeId;
+            this.inFavor = inFavor;
+            this.nonce = nonce;
+            this.signature = signature;
+        }
+
+        public ContractParameter toContractParameter() {
+            return array(publicKey(voter), string(memeId), bool(inFavor), integer(nonce),
+                    byteArray(signature));
+        }
+    }
+
+}